@@ -0,0 +1,81 @@
+package application.apigateway.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the email claim from the verified token with decoding the token payload a second time,
+ * the way JwtProcessingFilter used to, and measures the whole filter around the claim lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtProcessingFilterBenchmark {
+    private final JwtProcessingFilter jwtProcessingFilter = new JwtProcessingFilter();
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    private String token;
+    private JwtAuthenticationToken authentication;
+    private MockServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        String payload = "{\"iss\":\"https://accounts.google.com\",\"azp\":\"client\",\"aud\":\"client\",\"sub\":\"sub\",\"email\":\"user@example.com\",\"email_verified\":true}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        token = encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+
+        Jwt jwt = Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("sub")
+                .claim("email", "user@example.com")
+                .build();
+        authentication = new JwtAuthenticationToken(jwt);
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/1").build());
+    }
+
+    @Benchmark
+    public String decodePayload() {
+        String[] chunks = token.split("\\.");
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        String payload = new String(decoder.decode(chunks[1]));
+
+        String emailPart = payload.split(",")[4];
+        return emailPart.split(":")[1].replaceAll("\"", "");
+    }
+
+    @Benchmark
+    public String claimLookup() {
+        return authentication.getToken().getClaimAsString("email");
+    }
+
+    @Benchmark
+    public void wholeFilter() {
+        jwtProcessingFilter.filter(exchange, chain)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .block();
+    }
+}
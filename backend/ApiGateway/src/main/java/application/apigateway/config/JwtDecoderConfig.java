@@ -0,0 +1,28 @@
+package application.apigateway.config;
+
+import application.apigateway.security.CachingReactiveJwtDecoder;
+import application.apigateway.security.JwkSetProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+@Configuration
+public class JwtDecoderConfig {
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(
+            JwkSetProvider jwkSetProvider,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+            @Value("${jwt-cache.max-size:10000}") long cacheMaxSize,
+            MeterRegistry meterRegistry) {
+        // Same checks Spring Boot sets up from the resource server properties, but with keys from the provider's
+        // in-memory set and the verified-token cache in front
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(jwkSetProvider::getKeys).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+
+        return new CachingReactiveJwtDecoder(decoder, cacheMaxSize, meterRegistry);
+    }
+}
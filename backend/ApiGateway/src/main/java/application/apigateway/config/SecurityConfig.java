@@ -1,10 +1,18 @@
 package application.apigateway.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -22,13 +30,39 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "https://ede-microservices-ex.vercel.app"));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE"));
         configuration.setAllowedHeaders(List.of("*"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
 
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain metricsSecurityFilterChain(ServerHttpSecurity serverHttpSecurity,
+                                                             @Value("${metrics.username}") String username,
+                                                             @Value("${metrics.password}") String password) {
+        // The scraper can't present a user's token, so it signs in with its own credentials
+        UserDetails scraper = User.withUsername(username)
+                .password("{noop}" + password)
+                .roles("METRICS")
+                .build();
+
+        serverHttpSecurity
+                .securityMatcher(EndpointRequest.to("prometheus"))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(exchange -> {
+                    if (password.isBlank()) {
+                        exchange.anyExchange().denyAll();
+                    } else {
+                        exchange.anyExchange().hasRole("METRICS");
+                    }
+                })
+                .httpBasic(httpBasic -> httpBasic.authenticationManager(
+                        new UserDetailsRepositoryReactiveAuthenticationManager(new MapReactiveUserDetailsService(scraper))));
+        return serverHttpSecurity.build();
+    }
+
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity, CorsConfigurationSource corsConfigurationSource) {
         serverHttpSecurity
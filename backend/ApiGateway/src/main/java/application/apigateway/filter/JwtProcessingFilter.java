@@ -2,41 +2,49 @@ package application.apigateway.filter;
 
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Base64;
-
 @Component
-public class JwtProcessingFilter implements GlobalFilter {
-    @Override
-    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        String authHeader = request.getHeaders().getFirst("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String jwt = authHeader.substring(7);
-
-            String email = decodeJwtAndExtractEmail(jwt);
-
-            ServerHttpRequest modifiedRequest = request.mutate().header("X-User-Email", email).build();
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-        }
+public class JwtProcessingFilter implements GlobalFilter, Ordered {
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
 
-        return chain.filter(exchange);
+    // Route filters are ordered from 1, running before them lets those filters read the user's email
+    @Override
+    public int getOrder() {
+        return 0;
     }
 
-    private String decodeJwtAndExtractEmail(String jwt) {
-        String[] chunks = jwt.split("\\.");
-
-        Base64.Decoder decoder = Base64.getUrlDecoder();
-        String payload = new String(decoder.decode(chunks[1]));
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // The resource server has already verified the token, so its claims are read from the security context
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .flatMap(authentication -> Mono.justOrEmpty(((JwtAuthenticationToken) authentication).getToken().getClaimAsString("email")))
+                .map(email -> withUserEmail(exchange, email))
+                .switchIfEmpty(Mono.fromSupplier(() -> withUserEmail(exchange, null)))
+                .flatMap(chain::filter);
+    }
 
-        String emailPart = payload.split(",")[4];
-        String email = emailPart.split(":")[1].replaceAll("\"", "");
+    private ServerWebExchange withUserEmail(ServerWebExchange exchange, String email) {
+        if (email == null && !exchange.getRequest().getHeaders().containsKey(USER_EMAIL_HEADER)) {
+            return exchange;
+        }
 
-        return email;
+        // A header sent by the client itself is never passed on
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(USER_EMAIL_HEADER);
+                    if (email != null) {
+                        headers.set(USER_EMAIL_HEADER, email);
+                    }
+                }))
+                .build();
     }
 }
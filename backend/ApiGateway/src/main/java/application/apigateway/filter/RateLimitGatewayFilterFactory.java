@@ -0,0 +1,90 @@
+package application.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how many requests each user can send to a route, using an in-memory token bucket per user. Requests
+ * over the limit are answered with 429 Too Many Requests and a Retry-After header.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+    private final LongSupplier nanoTime;
+
+    public RateLimitGatewayFilterFactory() {
+        this(System::nanoTime);
+    }
+
+    RateLimitGatewayFilterFactory(LongSupplier nanoTime) {
+        super(Config.class);
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .expireAfterAccess(config.getIdleTimeout())
+                .build();
+
+        return (exchange, chain) -> {
+            // Set by JwtProcessingFilter from the verified token, anonymous requests are not limited per user
+            String email = exchange.getRequest().getHeaders().getFirst(JwtProcessingFilter.USER_EMAIL_HEADER);
+            if (email == null) {
+                return chain.filter(exchange);
+            }
+
+            TokenBucket bucket = buckets.get(email, key -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate(), nanoTime));
+            long waitNanos = bucket.tryConsume();
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            long retryAfterSeconds = Math.max(1, (long) Math.ceil((double) waitNanos / TimeUnit.SECONDS.toNanos(1)));
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return response.setComplete();
+        };
+    }
+
+    public static class Config {
+        // Tokens added to a user's bucket per second
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+}
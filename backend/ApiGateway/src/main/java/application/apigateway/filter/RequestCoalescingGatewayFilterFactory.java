@@ -0,0 +1,167 @@
+package application.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merges identical GETs that are in flight at the same time into one upstream call. The first request goes
+ * upstream and the others wait, up to a maximum, for its response instead of sending their own. Conditional
+ * GETs are never merged, since their answer depends on the validators the client sent.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+    private static final List<String> UNSHARED_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+
+    public RequestCoalescingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<RequestKey, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || isConditional(exchange)) {
+                return chain.filter(exchange);
+            }
+
+            return toRequestKey(exchange, config)
+                    .flatMap(key -> key.isPresent()
+                            ? filterCoalesced(exchange, chain, config, inFlight, key.get())
+                            : chain.filter(exchange));
+        };
+    }
+
+    private Mono<Void> filterCoalesced(ServerWebExchange exchange, GatewayFilterChain chain, Config config, Map<RequestKey, Sinks.One<SharedResponse>> inFlight, RequestKey key) {
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+        if (leader != null) {
+            // A request that waited too long, or whose leader failed, goes upstream itself
+            return leader.asMono()
+                    .timeout(config.getMaxWait())
+                    .map(Optional::of)
+                    .onErrorReturn(Optional.empty())
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(response -> response.isPresent()
+                            ? response.get().writeTo(exchange.getResponse())
+                            : chain.filter(exchange));
+        }
+
+        ServerHttpResponse sharingResponse = new SharingResponseDecorator(exchange.getResponse(), sink);
+        return chain.filter(exchange.mutate().response(sharingResponse).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private boolean isConditional(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    private Mono<Optional<RequestKey>> toRequestKey(ServerWebExchange exchange, Config config) {
+        String path = exchange.getRequest().getPath().value();
+        String query = exchange.getRequest().getURI().getRawQuery();
+
+        if (!config.isPerUser()) {
+            return Mono.just(Optional.of(new RequestKey(path, query, null)));
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(user -> Optional.of(new RequestKey(path, query, user)))
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private record RequestKey(String path, String query, String user) {
+    }
+
+    private record SharedResponse(HttpStatusCode statusCode, HttpHeaders headers, byte[] body) {
+        Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(statusCode);
+            response.getHeaders().putAll(headers);
+            response.getHeaders().setContentLength(body.length);
+
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    private static class SharingResponseDecorator extends ServerHttpResponseDecorator {
+        private final Sinks.One<SharedResponse> sink;
+
+        SharingResponseDecorator(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .map(dataBuffer -> {
+                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                        dataBuffer.read(bytes);
+                        DataBufferUtils.release(dataBuffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        // A server error is left to each waiter to retry upstream rather than handed to all of them
+                        HttpStatusCode statusCode = getStatusCode();
+                        if (statusCode != null && !statusCode.is5xxServerError()) {
+                            HttpHeaders headers = new HttpHeaders();
+                            headers.putAll(getHeaders());
+                            UNSHARED_HEADERS.forEach(headers::remove);
+                            sink.tryEmitValue(new SharedResponse(statusCode, headers, bytes));
+                        }
+
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+
+    public static class Config {
+        private Duration maxWait = Duration.ofSeconds(5);
+        // Set for routes whose responses depend on who is asking
+        private boolean perUser = false;
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public boolean isPerUser() {
+            return perUser;
+        }
+
+        public void setPerUser(boolean perUser) {
+            this.perUser = perUser;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package application.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches GET responses of a route in memory. Writes (PUT, PATCH, DELETE) passing through the same route
+ * drop the cached responses for the path they target.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    private static final Set<HttpMethod> INVALIDATING_METHODS = Set.of(HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final List<String> UNCACHED_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+
+    private final Clock clock;
+
+    public ResponseCacheGatewayFilterFactory() {
+        this(Clock.systemUTC());
+    }
+
+    ResponseCacheGatewayFilterFactory(Clock clock) {
+        super(Config.class);
+        this.clock = clock;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Cache<CacheKey, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            String path = exchange.getRequest().getPath().value();
+
+            if (INVALIDATING_METHODS.contains(method)) {
+                // Dropped again afterwards, so a read racing the write can't leave the old response behind
+                invalidate(cache, path);
+                return chain.filter(exchange).doFinally(signal -> invalidate(cache, path));
+            }
+
+            if (method != HttpMethod.GET || hasDirective(exchange.getRequest().getHeaders(), "no-store")) {
+                return chain.filter(exchange);
+            }
+
+            return toCacheKey(exchange, config)
+                    .flatMap(key -> key.isPresent()
+                            ? filterCached(exchange, chain, config, cache, key.get())
+                            : chain.filter(exchange));
+        };
+    }
+
+    private Mono<Void> filterCached(ServerWebExchange exchange, GatewayFilterChain chain, Config config, Cache<CacheKey, CachedResponse> cache, CacheKey key) {
+        ServerHttpRequest request = exchange.getRequest();
+        CachedResponse cachedResponse = cache.getIfPresent(key);
+        if (cachedResponse != null && !cachedResponse.expiresAt().isAfter(clock.instant())) {
+            cachedResponse = null;
+        }
+
+        boolean clientRevalidates = hasDirective(request.getHeaders(), "no-cache");
+        if (cachedResponse != null && !cachedResponse.revalidate() && !clientRevalidates) {
+            return writeCachedResponse(exchange.getResponse(), cachedResponse);
+        }
+
+        // Responses that have to be revalidated are checked upstream with their ETag, a 304 is answered from the cache
+        CachedResponse revalidatedResponse = null;
+        if (cachedResponse != null && cachedResponse.eTag() != null && request.getHeaders().getIfNoneMatch().isEmpty()) {
+            revalidatedResponse = cachedResponse;
+            request = request.mutate().header(HttpHeaders.IF_NONE_MATCH, cachedResponse.eTag()).build();
+        }
+
+        CachingResponseDecorator response = new CachingResponseDecorator(exchange.getResponse(), config, clock, cache, key, revalidatedResponse);
+        return chain.filter(exchange.mutate().request(request).response(response).build());
+    }
+
+    private Mono<Optional<CacheKey>> toCacheKey(ServerWebExchange exchange, Config config) {
+        String path = exchange.getRequest().getPath().value();
+        String query = exchange.getRequest().getURI().getRawQuery();
+
+        if (!config.isPerUser()) {
+            return Mono.just(Optional.of(new CacheKey(path, query, null)));
+        }
+
+        // Without a user there is nothing to key a user-specific response on, so it isn't cached
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(user -> Optional.of(new CacheKey(path, query, user)))
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private void invalidate(Cache<CacheKey, CachedResponse> cache, String path) {
+        cache.asMap().keySet().removeIf(key -> key.path().equals(path));
+    }
+
+    private static Mono<Void> writeCachedResponse(ServerHttpResponse response, CachedResponse cachedResponse) {
+        response.setStatusCode(cachedResponse.statusCode());
+        response.getHeaders().putAll(cachedResponse.headers());
+        response.getHeaders().setContentLength(cachedResponse.body().length);
+
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cachedResponse.body())));
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        return headers.getOrEmpty(HttpHeaders.CACHE_CONTROL).stream()
+                .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains(directive));
+    }
+
+    private static Instant toExpiry(HttpHeaders headers, Duration ttl, Instant now) {
+        // A shorter max-age from the backend wins over the configured ttl
+        Duration lifetime = ttl;
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            Matcher matcher = MAX_AGE.matcher(value.toLowerCase(Locale.ROOT));
+            if (matcher.find()) {
+                Duration maxAge = Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+                lifetime = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+            }
+        }
+
+        return now.plus(lifetime);
+    }
+
+    private record CacheKey(String path, String query, String user) {
+    }
+
+    private record CachedResponse(HttpStatusCode statusCode, HttpHeaders headers, byte[] body, String eTag, boolean revalidate, Instant expiresAt) {
+        CachedResponse withExpiresAt(Instant expiresAt) {
+            return new CachedResponse(statusCode, headers, body, eTag, revalidate, expiresAt);
+        }
+    }
+
+    private static class CachingResponseDecorator extends ServerHttpResponseDecorator {
+        private final Config config;
+        private final Clock clock;
+        private final Cache<CacheKey, CachedResponse> cache;
+        private final CacheKey key;
+        private final CachedResponse revalidatedResponse;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, Config config, Clock clock, Cache<CacheKey, CachedResponse> cache, CacheKey key, CachedResponse revalidatedResponse) {
+            super(delegate);
+            this.config = config;
+            this.clock = clock;
+            this.cache = cache;
+            this.key = key;
+            this.revalidatedResponse = revalidatedResponse;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (revalidatedResponse != null && HttpStatus.NOT_MODIFIED.equals(getStatusCode())) {
+                CachedResponse refreshedResponse = revalidatedResponse.withExpiresAt(toExpiry(getHeaders(), config.getTtl(), clock.instant()));
+                cache.put(key, refreshedResponse);
+
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(writeCachedResponse(getDelegate(), refreshedResponse));
+            }
+
+            if (!isCacheable()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(dataBuffer -> {
+                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+                        dataBuffer.read(bytes);
+                        DataBufferUtils.release(dataBuffer);
+
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.putAll(getHeaders());
+                        UNCACHED_HEADERS.forEach(headers::remove);
+                        boolean revalidate = hasDirective(getHeaders(), "no-cache");
+                        cache.put(key, new CachedResponse(getStatusCode(), headers, bytes, getHeaders().getETag(), revalidate, toExpiry(getHeaders(), config.getTtl(), clock.instant())));
+
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        private boolean isCacheable() {
+            HttpHeaders headers = getHeaders();
+            boolean sharedPrivateResponse = !config.isPerUser() && hasDirective(headers, "private");
+            // no-cache responses may be stored, but only when they can be revalidated with their ETag
+            boolean unverifiable = hasDirective(headers, "no-cache") && headers.getETag() == null;
+
+            return HttpStatus.OK.equals(getStatusCode())
+                    && !sharedPrivateResponse
+                    && !unverifiable
+                    && !hasDirective(headers, "no-store");
+        }
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofMinutes(1);
+        private long maxSize = 1000;
+        // Set for routes whose responses depend on who is asking
+        private boolean perUser = false;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public boolean isPerUser() {
+            return perUser;
+        }
+
+        public void setPerUser(boolean perUser) {
+            this.perUser = perUser;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package application.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that is refilled lazily on each attempt. Its state is swapped with compare-and-set, so
+ * concurrent requests of the same user never block each other.
+ */
+class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoTime;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double tokensPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.nanoTime = nanoTime;
+        this.state = new AtomicReference<>(new State(capacity, nanoTime.getAsLong()));
+    }
+
+    /**
+     * Takes one token from the bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    long tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = nanoTime.getAsLong();
+            double tokens = Math.min(capacity, current.tokens() + Math.max(0, now - current.refilledAt()) * tokensPerNano);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,146 @@
+package application.apigateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the keys tokens are verified with in memory. They can be loaded from a local file or classpath
+ * resource at startup and are refreshed in the background, a failed refresh keeps the last good keys.
+ */
+@Component
+public class JwkSetProvider {
+    private static final Logger log = LoggerFactory.getLogger(JwkSetProvider.class);
+    // Unknown key ids trigger a refresh, but not more often than this
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>(new JWKSet());
+    private final AtomicReference<Instant> lastRefresh = new AtomicReference<>(Instant.MIN);
+    private final Resource location;
+    private final String jwkSetUri;
+    private final Duration refreshInterval;
+    private final WebClient webClient;
+    private final Clock clock = Clock.systemUTC();
+    private Disposable refreshTask;
+
+    public JwkSetProvider(
+            @Value("${jwk-set.location:}") String location,
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String jwkSetUri,
+            @Value("${jwk-set.refresh-interval:PT1H}") Duration refreshInterval,
+            ResourceLoader resourceLoader,
+            WebClient.Builder webClientBuilder) {
+        this.location = StringUtils.hasText(location) ? resourceLoader.getResource(location) : null;
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration initialDelay = refreshInterval;
+        if (location != null) {
+            try {
+                jwkSet.set(readLocation());
+                log.info("Loaded {} keys from {}", jwkSet.get().getKeys().size(), location);
+            } catch (Exception e) {
+                log.error("Could not load keys from {}: {}", location, e.getMessage());
+                initialDelay = Duration.ZERO;
+            }
+        } else {
+            // Nothing local to start from, fetch in the background so startup doesn't wait on the network
+            initialDelay = Duration.ZERO;
+        }
+
+        refreshTask = Flux.interval(initialDelay, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+        }
+    }
+
+    public Flux<JWK> getKeys(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        List<JWK> keys = selector.select(jwkSet.get());
+        if (!keys.isEmpty() || !refreshAllowed()) {
+            return Flux.fromIterable(keys);
+        }
+
+        // The token was signed with a key we don't know yet, the issuer may have rotated its keys
+        return refresh()
+                .onErrorResume(e -> Mono.just(jwkSet.get()))
+                .flatMapIterable(selector::select);
+    }
+
+    public Mono<JWKSet> refresh() {
+        lastRefresh.set(clock.instant());
+
+        return fetch()
+                .doOnNext(keys -> {
+                    jwkSet.set(keys);
+                    log.debug("Refreshed keys, {} keys loaded", keys.getKeys().size());
+                })
+                .doOnError(e -> log.warn("Could not refresh keys, keeping the last good ones: {}", e.getMessage()));
+    }
+
+    private boolean refreshAllowed() {
+        return lastRefresh.get().plus(MIN_REFRESH_INTERVAL).isBefore(clock.instant());
+    }
+
+    private Mono<JWKSet> fetch() {
+        if (!StringUtils.hasText(jwkSetUri)) {
+            return location == null ? Mono.empty() : Mono.fromCallable(this::readLocation);
+        }
+
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(FETCH_TIMEOUT)
+                .map(this::parse);
+    }
+
+    private JWKSet readLocation() throws Exception {
+        try (InputStream inputStream = location.getInputStream()) {
+            return parse(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private JWKSet parse(String json) {
+        try {
+            return JWKSet.parse(json);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid JWK set: " + e.getMessage(), e);
+        }
+    }
+}
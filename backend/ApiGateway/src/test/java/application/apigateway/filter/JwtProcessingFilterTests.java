@@ -0,0 +1,121 @@
+package application.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtProcessingFilterTests {
+    private final JwtProcessingFilter jwtProcessingFilter = new JwtProcessingFilter();
+
+    @Test
+    public void filter_WithAuthenticatedJwt_SetsEmailHeaderFromClaim() {
+        // Arrange
+        JwtAuthenticationToken authentication = authentication("sub", "user@example.com");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/me")
+                .header(JwtProcessingFilter.USER_EMAIL_HEADER, "spoofed@example.com")
+                .build());
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        // Act
+        jwtProcessingFilter.filter(exchange, capture(forwarded))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .block();
+
+        // Assert
+        assertEquals(List.of("user@example.com"), forwarded.get().getRequest().getHeaders().get(JwtProcessingFilter.USER_EMAIL_HEADER));
+    }
+
+    @Test
+    public void filter_WithoutAuthentication_DropsEmailHeader() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/user")
+                .header(JwtProcessingFilter.USER_EMAIL_HEADER, "spoofed@example.com")
+                .build());
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        // Act
+        jwtProcessingFilter.filter(exchange, capture(forwarded)).block();
+
+        // Assert
+        assertNull(forwarded.get().getRequest().getHeaders().get(JwtProcessingFilter.USER_EMAIL_HEADER));
+    }
+
+    @Test
+    public void filter_WithAuthenticatedJwt_ReadsEmailFromVerifiedClaims() {
+        // Arrange
+        // The encoded payload carries another email than the verified claims, only the claims may be used
+        JwtAuthenticationToken authentication = authentication("sub", "claim@example.com");
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/1").build());
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        // Act
+        jwtProcessingFilter.filter(exchange, capture(forwarded))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .block();
+
+        // Assert
+        assertEquals(List.of("claim@example.com"), forwarded.get().getRequest().getHeaders().get(JwtProcessingFilter.USER_EMAIL_HEADER));
+        assertEquals("/recipe/1", forwarded.get().getRequest().getPath().value());
+    }
+
+    @Test
+    public void filter_WithJwtWithoutEmailClaim_DropsEmailHeader() {
+        // Arrange
+        Jwt jwt = Jwt.withTokenValue(encodedToken())
+                .header("alg", "RS256")
+                .subject("sub")
+                .build();
+        JwtAuthenticationToken authentication = new JwtAuthenticationToken(jwt);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/me")
+                .header(JwtProcessingFilter.USER_EMAIL_HEADER, "spoofed@example.com")
+                .build());
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        // Act
+        jwtProcessingFilter.filter(exchange, capture(forwarded))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                .block();
+
+        // Assert
+        assertNotNull(forwarded.get());
+        assertNull(forwarded.get().getRequest().getHeaders().get(JwtProcessingFilter.USER_EMAIL_HEADER));
+    }
+
+    private static JwtAuthenticationToken authentication(String subject, String email) {
+        Jwt jwt = Jwt.withTokenValue(encodedToken())
+                .header("alg", "RS256")
+                .subject(subject)
+                .claim("email", email)
+                .build();
+
+        return new JwtAuthenticationToken(jwt);
+    }
+
+    private static String encodedToken() {
+        String payload = "{\"iss\":\"https://accounts.google.com\",\"azp\":\"client\",\"aud\":\"client\",\"sub\":\"sub\",\"email\":\"user@example.com\",\"email_verified\":true}";
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    private static GatewayFilterChain capture(AtomicReference<ServerWebExchange> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package application.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitGatewayFilterFactoryTests {
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+    private final RateLimitGatewayFilterFactory factory = new RateLimitGatewayFilterFactory(nanoTime::get);
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    public void filter_WithinBurstCapacity_ForwardsRequests() {
+        // Arrange
+        GatewayFilter filter = filter(1, 3);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertNull(send(filter, "user@example.com").getResponse().getStatusCode());
+        }
+
+        // Assert
+        assertEquals(3, forwarded.get());
+    }
+
+    @Test
+    public void filter_OverBurstCapacity_RejectsWithRetryAfter() {
+        // Arrange
+        GatewayFilter filter = filter(0.5, 1);
+        send(filter, "user@example.com");
+
+        // Act
+        MockServerWebExchange rejected = send(filter, "user@example.com");
+        advance(1_500);
+        MockServerWebExchange rejectedLater = send(filter, "user@example.com");
+
+        // Assert
+        assertEquals(1, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("2", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejectedLater.getResponse().getStatusCode());
+        assertEquals("1", rejectedLater.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void filter_AfterRetryAfter_ForwardsRequestAgain() {
+        // Arrange
+        GatewayFilter filter = filter(2, 1);
+        send(filter, "user@example.com");
+        MockServerWebExchange rejected = send(filter, "user@example.com");
+        long retryAfter = Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        // Act
+        advance(TimeUnit.SECONDS.toMillis(retryAfter));
+        MockServerWebExchange retried = send(filter, "user@example.com");
+
+        // Assert
+        assertEquals(1, retryAfter);
+        assertNull(retried.getResponse().getStatusCode());
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void filter_WithDifferentUsers_UsesSeparateBuckets() {
+        // Arrange
+        GatewayFilter filter = filter(1, 1);
+        send(filter, "user1@example.com");
+
+        // Act
+        MockServerWebExchange otherUser = send(filter, "user2@example.com");
+        MockServerWebExchange sameUser = send(filter, "user1@example.com");
+
+        // Assert
+        assertNull(otherUser.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, sameUser.getResponse().getStatusCode());
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void filter_WithDifferentRoutes_UsesSeparateBuckets() {
+        // Arrange
+        GatewayFilter recipeRoute = filter(1, 1);
+        GatewayFilter ingredientRoute = filter(1, 1);
+        send(recipeRoute, "user@example.com");
+
+        // Act
+        MockServerWebExchange otherRoute = send(ingredientRoute, "user@example.com");
+        MockServerWebExchange sameRoute = send(recipeRoute, "user@example.com");
+
+        // Assert
+        assertNull(otherRoute.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, sameRoute.getResponse().getStatusCode());
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    public void filter_WithoutUser_IsNotLimited() {
+        // Arrange
+        GatewayFilter filter = filter(1, 1);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/ingredient").build()), chain).block();
+        }
+
+        // Assert
+        assertEquals(5, forwarded.get());
+    }
+
+    private GatewayFilter filter(double replenishRate, int burstCapacity) {
+        RateLimitGatewayFilterFactory.Config config = new RateLimitGatewayFilterFactory.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+
+        return factory.apply(config);
+    }
+
+    private MockServerWebExchange send(GatewayFilter filter, String email) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/1")
+                .header(JwtProcessingFilter.USER_EMAIL_HEADER, email)
+                .build());
+        filter.filter(exchange, chain).block();
+
+        return exchange;
+    }
+
+    private void advance(long millis) {
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,241 @@
+package application.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescingGatewayFilterFactoryTests {
+    private final RequestCoalescingGatewayFilterFactory factory = new RequestCoalescingGatewayFilterFactory();
+    private final Upstream upstream = new Upstream();
+
+    @Test
+    public void filter_WithConcurrentIdenticalGets_SharesOneUpstreamCall() throws Exception {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange leader = exchange(HttpMethod.GET, "/recipe/1");
+        MockServerWebExchange follower1 = exchange(HttpMethod.GET, "/recipe/1");
+        MockServerWebExchange follower2 = exchange(HttpMethod.GET, "/recipe/1");
+
+        // Act
+        CompletableFuture<Void> leaderDone = filter.filter(leader, upstream).toFuture();
+        CompletableFuture<Void> follower1Done = filter.filter(follower1, upstream).toFuture();
+        CompletableFuture<Void> follower2Done = filter.filter(follower2, upstream).toFuture();
+        upstream.releaseFirstCall();
+        CompletableFuture.allOf(leaderDone, follower1Done, follower2Done).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, upstream.calls.get());
+        assertEquals("response 1", leader.getResponse().getBodyAsString().block());
+        assertEquals("response 1", follower1.getResponse().getBodyAsString().block());
+        assertEquals("response 1", follower2.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, follower1.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void filter_WithDifferentQueries_CallsUpstreamForEach() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+
+        // Act
+        CompletableFuture<Void> firstDone = filter.filter(exchange(HttpMethod.GET, "/recipe/1?view=short"), upstream).toFuture();
+        CompletableFuture<Void> secondDone = filter.filter(exchange(HttpMethod.GET, "/recipe/1?view=long"), upstream).toFuture();
+
+        // Assert
+        assertEquals(2, upstream.calls.get());
+        assertFalse(firstDone.isDone());
+        assertTrue(secondDone.isDone());
+        upstream.releaseFirstCall();
+    }
+
+    @Test
+    public void filter_WithLeaderSlowerThanMaxWait_FollowerCallsUpstreamItself() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMillis(100));
+        MockServerWebExchange leader = exchange(HttpMethod.GET, "/recipe/1");
+        MockServerWebExchange follower = exchange(HttpMethod.GET, "/recipe/1");
+        CompletableFuture<Void> leaderDone = filter.filter(leader, upstream).toFuture();
+
+        // Act
+        filter.filter(follower, upstream).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertFalse(leaderDone.isDone());
+        assertEquals(2, upstream.calls.get());
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+        upstream.releaseFirstCall();
+    }
+
+    @Test
+    public void filter_WithFailingLeader_FollowerCallsUpstreamItself() throws Exception {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        upstream.failFirstCall(new IllegalStateException("connection reset"));
+        MockServerWebExchange leader = exchange(HttpMethod.GET, "/recipe/1");
+        MockServerWebExchange follower = exchange(HttpMethod.GET, "/recipe/1");
+
+        // Act
+        CompletableFuture<Void> leaderDone = filter.filter(leader, upstream).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, upstream).toFuture();
+        upstream.releaseFirstCall();
+        followerDone.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(leaderDone.isCompletedExceptionally());
+        assertEquals(2, upstream.calls.get());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void filter_WithServerErrorForLeader_FollowerCallsUpstreamItself() throws Exception {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        upstream.answerFirstCallWith(HttpStatus.SERVICE_UNAVAILABLE);
+        MockServerWebExchange leader = exchange(HttpMethod.GET, "/recipe/1");
+        MockServerWebExchange follower = exchange(HttpMethod.GET, "/recipe/1");
+
+        // Act
+        CompletableFuture<Void> leaderDone = filter.filter(leader, upstream).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, upstream).toFuture();
+        upstream.releaseFirstCall();
+        CompletableFuture.allOf(leaderDone, followerDone).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, upstream.calls.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, leader.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void filter_AfterLeaderCompletes_NextGetCallsUpstreamAgain() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        CompletableFuture<Void> leaderDone = filter.filter(exchange(HttpMethod.GET, "/recipe/1"), upstream).toFuture();
+        upstream.releaseFirstCall();
+        leaderDone.join();
+
+        // Act
+        MockServerWebExchange next = exchange(HttpMethod.GET, "/recipe/1");
+        filter.filter(next, upstream).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(2, upstream.calls.get());
+        assertEquals("response 2", next.getResponse().getBodyAsString().block());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE})
+    public void filter_WithConditionalLeader_UnconditionalFollowerCallsUpstreamItself(String conditionalHeader) throws Exception {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        upstream.answerFirstCallWith(HttpStatus.NOT_MODIFIED);
+        String validator = HttpHeaders.IF_NONE_MATCH.equals(conditionalHeader) ? "\"v1\"" : "Wed, 14 Oct 2026 10:00:00 GMT";
+        MockServerWebExchange leader = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/1")
+                .header(conditionalHeader, validator)
+                .build());
+        MockServerWebExchange follower = exchange(HttpMethod.GET, "/recipe/1");
+
+        // Act
+        CompletableFuture<Void> leaderDone = filter.filter(leader, upstream).toFuture();
+        filter.filter(follower, upstream).block(Duration.ofSeconds(5));
+        upstream.releaseFirstCall();
+        leaderDone.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, upstream.calls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, leader.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("response 2", follower.getResponse().getBodyAsString().block());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PUT", "PATCH", "DELETE", "POST"})
+    public void filter_WithConcurrentIdenticalWrites_CallsUpstreamForEach(String method) {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+        MockServerWebExchange first = exchange(HttpMethod.valueOf(method), "/recipe/1");
+        MockServerWebExchange second = exchange(HttpMethod.valueOf(method), "/recipe/1");
+
+        // Act
+        CompletableFuture<Void> firstDone = filter.filter(first, upstream).toFuture();
+        filter.filter(second, upstream).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertFalse(firstDone.isDone());
+        assertEquals(2, upstream.calls.get());
+        assertEquals("response 2", second.getResponse().getBodyAsString().block());
+        upstream.releaseFirstCall();
+    }
+
+    private GatewayFilter filter(Duration maxWait) {
+        RequestCoalescingGatewayFilterFactory.Config config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setMaxWait(maxWait);
+
+        return factory.apply(config);
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method, String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, uri).build());
+    }
+
+    // Stands in for the proxied service. The first call is held until released, later calls answer right away
+    private static class Upstream implements GatewayFilterChain {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Sinks.Empty<Void> firstCallReleased = Sinks.empty();
+        private HttpStatus firstCallStatus = HttpStatus.OK;
+        private RuntimeException firstCallError;
+
+        void releaseFirstCall() {
+            firstCallReleased.tryEmitEmpty();
+        }
+
+        void answerFirstCallWith(HttpStatus status) {
+            this.firstCallStatus = status;
+        }
+
+        void failFirstCall(RuntimeException error) {
+            this.firstCallError = error;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            int call = calls.incrementAndGet();
+            if (call > 1) {
+                return respond(exchange, HttpStatus.OK, call);
+            }
+
+            return firstCallReleased.asMono()
+                    .then(Mono.defer(() -> firstCallError != null
+                            ? Mono.error(firstCallError)
+                            : respond(exchange, firstCallStatus, call)));
+        }
+
+        private static Mono<Void> respond(ServerWebExchange exchange, HttpStatus status, int call) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            byte[] body = ("response " + call).getBytes(StandardCharsets.UTF_8);
+
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package application.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheGatewayFilterFactoryTests {
+    private final MutableClock clock = new MutableClock();
+    private final ResponseCacheGatewayFilterFactory factory = new ResponseCacheGatewayFilterFactory(clock);
+    private final Upstream upstream = new Upstream();
+
+    @Test
+    public void filter_WithinTtl_ServesCachedResponse() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> {
+        });
+
+        // Act
+        String first = get(filter, "/recipe/1").getResponse().getBodyAsString().block();
+        clock.advance(Duration.ofSeconds(59));
+        String second = get(filter, "/recipe/1").getResponse().getBodyAsString().block();
+
+        // Assert
+        assertEquals("recipe", first);
+        assertEquals("recipe", second);
+        assertEquals(1, upstream.requests.size());
+    }
+
+    @Test
+    public void filter_AfterTtl_FetchesResponseAgain() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> {
+        });
+        get(filter, "/recipe/1");
+
+        // Act
+        clock.advance(Duration.ofMinutes(1));
+        get(filter, "/recipe/1");
+
+        // Assert
+        assertEquals(2, upstream.requests.size());
+    }
+
+    @Test
+    public void filter_WithShorterMaxAge_ExpiresAtMaxAge() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> headers.setCacheControl("max-age=10"));
+        get(filter, "/recipe/1");
+
+        // Act
+        clock.advance(Duration.ofSeconds(9));
+        get(filter, "/recipe/1");
+        clock.advance(Duration.ofSeconds(1));
+        get(filter, "/recipe/1");
+
+        // Assert
+        assertEquals(2, upstream.requests.size());
+    }
+
+    @Test
+    public void filter_WithLongerMaxAge_ExpiresAtTtl() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> headers.setCacheControl("max-age=3600"));
+        get(filter, "/recipe/1");
+
+        // Act
+        clock.advance(Duration.ofMinutes(1));
+        get(filter, "/recipe/1");
+
+        // Assert
+        assertEquals(2, upstream.requests.size());
+    }
+
+    @Test
+    public void filter_WithNoStoreResponse_DoesNotCache() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> headers.setCacheControl("no-store"));
+
+        // Act
+        get(filter, "/recipe/1");
+        get(filter, "/recipe/1");
+
+        // Assert
+        assertEquals(2, upstream.requests.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PUT", "PATCH", "DELETE"})
+    public void filter_WithWriteToCachedPath_EvictsCachedResponse(String method) {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> {
+        });
+        get(filter, "/recipe/1");
+        get(filter, "/recipe/2");
+
+        // Act
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.valueOf(method), "/recipe/1").build()), upstream).block();
+        get(filter, "/recipe/1");
+        get(filter, "/recipe/2");
+
+        // Assert
+        List<String> paths = upstream.requests.stream().map(request -> request.method() + " " + request.path()).toList();
+        assertEquals(List.of("GET /recipe/1", "GET /recipe/2", method + " /recipe/1", "GET /recipe/1"), paths);
+    }
+
+    @Test
+    public void filter_WithNoCacheResponse_RevalidatesWithETag() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> {
+            headers.setCacheControl("no-cache");
+            headers.setETag("\"v1\"");
+        });
+        get(filter, "/recipe/1");
+        upstream.respondNotModified();
+
+        // Act
+        MockServerWebExchange exchange = get(filter, "/recipe/1");
+
+        // Assert
+        assertEquals(2, upstream.requests.size());
+        assertEquals(List.of("\"v1\""), upstream.requests.get(1).ifNoneMatch());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("recipe", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    public void filter_WithChangedETag_ReplacesCachedResponse() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("old", headers -> {
+            headers.setCacheControl("no-cache");
+            headers.setETag("\"v1\"");
+        });
+        get(filter, "/recipe/1");
+        upstream.respond("new", headers -> {
+            headers.setCacheControl("no-cache");
+            headers.setETag("\"v2\"");
+        });
+
+        // Act
+        String changed = get(filter, "/recipe/1").getResponse().getBodyAsString().block();
+        upstream.respondNotModified();
+        String revalidated = get(filter, "/recipe/1").getResponse().getBodyAsString().block();
+
+        // Assert
+        assertEquals("new", changed);
+        assertEquals("new", revalidated);
+        assertEquals(List.of("\"v2\""), upstream.requests.get(2).ifNoneMatch());
+    }
+
+    @Test
+    public void filter_WithClientIfNoneMatch_PassesClientETagUpstream() {
+        // Arrange
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        upstream.respond("recipe", headers -> {
+            headers.setCacheControl("no-cache");
+            headers.setETag("\"v1\"");
+        });
+        get(filter, "/recipe/1");
+        upstream.respondNotModified();
+
+        // Act
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/recipe/1")
+                .ifNoneMatch("\"v1\"")
+                .build());
+        filter.filter(exchange, upstream).block();
+
+        // Assert
+        assertEquals(List.of("\"v1\""), upstream.requests.get(1).ifNoneMatch());
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+    }
+
+    private GatewayFilter filter(Duration ttl) {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(ttl);
+
+        return factory.apply(config);
+    }
+
+    private MockServerWebExchange get(GatewayFilter filter, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+        filter.filter(exchange, upstream).block();
+
+        return exchange;
+    }
+
+    private record UpstreamRequest(HttpMethod method, String path, List<String> ifNoneMatch) {
+    }
+
+    // Stands in for the proxied service, answering every request with the response set up last
+    private static class Upstream implements GatewayFilterChain {
+        private final List<UpstreamRequest> requests = new ArrayList<>();
+        private HttpStatus status;
+        private String body;
+        private Consumer<HttpHeaders> headers;
+
+        void respond(String body, Consumer<HttpHeaders> headers) {
+            this.status = HttpStatus.OK;
+            this.body = body;
+            this.headers = headers;
+        }
+
+        void respondNotModified() {
+            this.status = HttpStatus.NOT_MODIFIED;
+            this.body = "";
+            this.headers = headers -> {
+            };
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            requests.add(new UpstreamRequest(exchange.getRequest().getMethod(), exchange.getRequest().getPath().value(),
+                    exchange.getRequest().getHeaders().getIfNoneMatch()));
+
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            headers.accept(response.getHeaders());
+
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
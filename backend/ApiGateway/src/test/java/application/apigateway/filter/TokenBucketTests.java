@@ -0,0 +1,125 @@
+package application.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTests {
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void tryConsume_WithFullBucket_AllowsBurstCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(5, 1, nanoTime::get);
+
+        // Act
+        int allowed = consumeAll(bucket, 10);
+
+        // Assert
+        assertEquals(5, allowed);
+    }
+
+    @Test
+    public void tryConsume_WithEmptyBucket_RefillsAtReplenishRate() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 4, nanoTime::get);
+        consumeAll(bucket, 10);
+
+        // Act
+        advance(1_010);
+        int allowedAfterOneSecond = consumeAll(bucket, 10);
+        advance(260);
+        int allowedAfterQuarterSecond = consumeAll(bucket, 10);
+
+        // Assert
+        assertEquals(4, allowedAfterOneSecond);
+        assertEquals(1, allowedAfterQuarterSecond);
+    }
+
+    @Test
+    public void tryConsume_AfterLongIdle_RefillsNoMoreThanBurstCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, 10, nanoTime::get);
+        consumeAll(bucket, 3);
+
+        // Act
+        advance(60_000);
+        int allowed = consumeAll(bucket, 10);
+
+        // Assert
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    public void tryConsume_WithEmptyBucket_ReturnsWaitUntilNextToken() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 2, nanoTime::get);
+        bucket.tryConsume();
+
+        // Act
+        long wait = bucket.tryConsume();
+        advance(200);
+        long shorterWait = bucket.tryConsume();
+
+        // Assert
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait, TimeUnit.MICROSECONDS.toNanos(1));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300), shorterWait, TimeUnit.MICROSECONDS.toNanos(1));
+
+        nanoTime.addAndGet(shorterWait);
+        assertEquals(0, bucket.tryConsume());
+    }
+
+    @Test
+    public void tryConsume_FromConcurrentThreads_NeverOverdrawsBucket() throws Exception {
+        // Arrange
+        int capacity = 100;
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(capacity, 1, nanoTime::get);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return consumeAll(bucket, 1_000);
+            }));
+        }
+        start.countDown();
+
+        int allowed = 0;
+        for (Future<Integer> result : results) {
+            allowed += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(capacity, allowed);
+        assertTrue(bucket.tryConsume() > 0);
+    }
+
+    private void advance(long millis) {
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static int consumeAll(TokenBucket bucket, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (bucket.tryConsume() == 0) {
+                allowed++;
+            }
+        }
+
+        return allowed;
+    }
+}
@@ -0,0 +1,77 @@
+package application.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingReactiveJwtDecoderTests {
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    public void decode_WithRepeatedToken_VerifiesOnce() {
+        // Arrange
+        ReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(verifying(NOW.plusSeconds(3600)), 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Act
+        Jwt first = decoder.decode("token").block();
+        Jwt second = decoder.decode("token").block();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void decode_WithExpiredToken_VerifiesEveryTime() {
+        // Arrange
+        ReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(verifying(NOW.minusSeconds(1)), 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Act
+        decoder.decode("token").block();
+        decoder.decode("token").block();
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void decode_WithRejectedToken_DoesNotCacheFailure() {
+        // Arrange
+        ReactiveJwtDecoder rejecting = token -> {
+            verifications.incrementAndGet();
+            return Mono.error(new BadJwtException("Invalid signature"));
+        };
+        ReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(rejecting, 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> decoder.decode("token").block());
+        assertThrows(BadJwtException.class, () -> decoder.decode("token").block());
+        assertEquals(2, verifications.get());
+    }
+
+    private ReactiveJwtDecoder verifying(Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return Mono.just(Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("sub")
+                    .issuedAt(NOW.minusSeconds(60))
+                    .expiresAt(expiresAt)
+                    .build());
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package application.apigateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JwkSetProviderTests {
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final RSAKey SIGNING_KEY = generateKey("local-key");
+    private static final Path JWK_SET_FILE = writeJwkSet(SIGNING_KEY);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwkSetProvider jwkSetProvider;
+
+    @DynamicPropertySource
+    static void jwkSetProperties(DynamicPropertyRegistry registry) {
+        registry.add("jwk-set.location", () -> JWK_SET_FILE.toUri().toString());
+        // Nothing listens here, the gateway has to get by with the local keys
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", () -> "http://localhost:1/certs");
+    }
+
+    @AfterAll
+    static void deleteJwkSet() throws Exception {
+        Files.deleteIfExists(JWK_SET_FILE);
+    }
+
+    @Test
+    public void request_WithTokenSignedByLocalKey_IsAuthenticated() {
+        webTestClient.get()
+                .uri("/actuator/health")
+                .headers(headers -> headers.setBearerAuth(sign(SIGNING_KEY)))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void request_WithTokenSignedByUnknownKey_IsRejected() {
+        webTestClient.get()
+                .uri("/actuator/health")
+                .headers(headers -> headers.setBearerAuth(sign(generateKey("other-key"))))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    public void refresh_WithUnreachableJwkSetUri_KeepsLastGoodKeys() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> jwkSetProvider.refresh().block());
+
+        webTestClient.get()
+                .uri("/actuator/health")
+                .headers(headers -> headers.setBearerAuth(sign(SIGNING_KEY)))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private static String sign(RSAKey key) {
+        try {
+            JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                    .issuer(ISSUER)
+                    .subject("sub")
+                    .claim("email", "user@example.com")
+                    .issueTime(new Date())
+                    .expirationTime(Date.from(Instant.now().plusSeconds(600)))
+                    .build();
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(key));
+
+            return jwt.serialize();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RSAKey generateKey(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).generate();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path writeJwkSet(RSAKey key) {
+        try {
+            Path file = Files.createTempFile("jwks", ".json");
+            Files.writeString(file, new JWKSet(key.toPublicJWK()).toString());
+
+            return file;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package application.services.client;
+
+import application.services.dto.IngredientResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Tells the recipe service that an ingredient changed so it can refresh or drop its copies.
+ * Failures are only logged: the recipe service's cache entries expire on their own.
+ */
+@Slf4j
+@Component
+public class RecipeServiceClient {
+    private final RestTemplate restTemplate;
+    private final String recipeServiceBaseUrl;
+
+    public RecipeServiceClient(RestTemplateBuilder restTemplateBuilder,
+                               @Value("${recipeservice.baseurl}") String recipeServiceBaseUrl) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(1))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build();
+        this.recipeServiceBaseUrl = recipeServiceBaseUrl;
+    }
+
+    public void refreshIngredient(IngredientResponse ingredient) {
+        try {
+            restTemplate.put(String.format("http://%s/api/recipe-ingredient/%s", recipeServiceBaseUrl, ingredient.getId()), ingredient);
+        } catch (RestClientException e) {
+            log.warn("Could not refresh ingredient {} in recipe service: {}", ingredient.getId(), e.getMessage());
+        }
+    }
+
+    public void invalidateIngredient(String id) {
+        try {
+            restTemplate.delete(String.format("http://%s/api/ingredient-cache/%s", recipeServiceBaseUrl, id));
+        } catch (RestClientException e) {
+            log.warn("Could not invalidate cached ingredient {} in recipe service: {}", id, e.getMessage());
+        }
+    }
+}
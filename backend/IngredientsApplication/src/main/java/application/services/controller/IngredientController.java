@@ -1,13 +1,17 @@
 package application.services.controller;
 
+import application.services.dto.IngredientCatalog;
 import application.services.dto.IngredientRequest;
 import application.services.dto.IngredientResponse;
 import application.services.exception.ResourceNotFoundException;
 import application.services.service.IngredientService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,9 +28,25 @@ public class IngredientController {
     }
 
     @GetMapping
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
+        // Answered with 304 straight from the version when the client already has the current catalog
+        if (request.checkNotModified(toETag(ingredientService.getCatalogVersion()))) {
+            return null;
+        }
+
+        IngredientCatalog catalog = ingredientService.getCatalog();
+
+        return ResponseEntity.ok()
+                .eTag(toETag(catalog.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.getJson());
+    }
+
+    @GetMapping("/suggest")
     @ResponseStatus(HttpStatus.OK)
-    public List<IngredientResponse> getAll() {
-        return ingredientService.getAll();
+    public List<IngredientResponse> suggest(@RequestParam(defaultValue = "") String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return ingredientService.suggest(prefix, limit);
     }
 
     @GetMapping("/{id}")
@@ -35,6 +55,12 @@ public class IngredientController {
         return ingredientService.getById(id);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<IngredientResponse> getByIds(@RequestBody List<String> ids) {
+        return ingredientService.getByIds(ids);
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public IngredientResponse update(@PathVariable String id, @RequestBody IngredientRequest ingredientRequest) {
@@ -47,6 +73,10 @@ public class IngredientController {
         ingredientService.delete(id);
     }
 
+    private String toETag(long catalogVersion) {
+        return "\"" + catalogVersion + "\"";
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
@@ -0,0 +1,14 @@
+package application.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The serialized ingredient list together with the catalog version it was read at.
+ */
+@AllArgsConstructor
+@Getter
+public class IngredientCatalog {
+    private final long version;
+    private final byte[] json;
+}
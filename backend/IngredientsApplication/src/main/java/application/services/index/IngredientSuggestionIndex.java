@@ -0,0 +1,65 @@
+package application.services.index;
+
+import application.services.dto.IngredientResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive prefix index over ingredient names, used to answer autocomplete requests from memory.
+ */
+@Component
+public class IngredientSuggestionIndex {
+    // Keys are the lower-cased name followed by the id, so ingredients sharing a name get their own entry
+    private final NavigableMap<String, IngredientResponse> ingredientsByKey = new ConcurrentSkipListMap<>();
+    // Only touched while holding the lock, writes are rare compared to suggestions
+    private final Map<String, String> keysById = new HashMap<>();
+
+    public synchronized void put(IngredientResponse ingredient) {
+        remove(ingredient.getId());
+
+        String key = toKey(ingredient.getName()) + '\0' + ingredient.getId();
+        ingredientsByKey.put(key, ingredient);
+        keysById.put(ingredient.getId(), key);
+    }
+
+    public synchronized void remove(String id) {
+        String key = keysById.remove(id);
+        if (key != null) {
+            ingredientsByKey.remove(key);
+        }
+    }
+
+    public synchronized void replaceAll(Collection<IngredientResponse> ingredients) {
+        ingredientsByKey.clear();
+        keysById.clear();
+        ingredients.forEach(this::put);
+    }
+
+    public List<IngredientResponse> suggest(String prefix, int limit) {
+        String key = toKey(prefix);
+
+        // Everything sharing the prefix sorts right after the prefix itself
+        List<IngredientResponse> suggestions = new ArrayList<>();
+        for (Map.Entry<String, IngredientResponse> entry : ingredientsByKey.tailMap(key).entrySet()) {
+            if (suggestions.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+
+            suggestions.add(entry.getValue());
+        }
+
+        return suggestions;
+    }
+
+    private String toKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,7 @@
 package application.services.initializer;
 
 import application.services.repository.IngredientRepository;
+import application.services.service.IngredientService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,13 +9,15 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class DatabaseInitializer {
     @Bean
-    CommandLineRunner initDatabase(IngredientRepository ingredientRepository) {
+    CommandLineRunner initDatabase(IngredientRepository ingredientRepository, IngredientService ingredientService) {
         return args -> {
             if (ingredientRepository.count() == 0) {
                 ingredientRepository.saveAll(
                         IngredientDataInitializer.getIngredients()
                 );
             }
+
+            ingredientService.rebuildSuggestionIndex();
         };
     }
 }
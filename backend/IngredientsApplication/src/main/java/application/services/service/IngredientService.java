@@ -1,19 +1,35 @@
 package application.services.service;
 
+import application.services.client.RecipeServiceClient;
+import application.services.dto.IngredientCatalog;
 import application.services.dto.IngredientRequest;
 import application.services.dto.IngredientResponse;
 import application.services.exception.ResourceNotFoundException;
+import application.services.index.IngredientSuggestionIndex;
 import application.services.model.Ingredient;
 import application.services.repository.IngredientRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 public class IngredientService {
     private final IngredientRepository ingredientRepository;
+    private final RecipeServiceClient recipeServiceClient;
+    private final IngredientSuggestionIndex ingredientSuggestionIndex;
+    private final ObjectMapper objectMapper;
+
+    // Seeded with the start time so versions, and the ETags built from them, don't repeat after a restart
+    private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis());
+    private final AtomicReference<IngredientCatalog> cachedCatalog = new AtomicReference<>();
+
+    private final int MAX_SUGGESTIONS = 50;
 
     public void create(IngredientRequest ingredientRequest) {
         Ingredient ingredient = Ingredient.builder()
@@ -22,6 +38,8 @@ public class IngredientService {
                 .build();
 
         ingredientRepository.save(ingredient);
+        ingredientSuggestionIndex.put(mapToIngredientResponse(ingredient));
+        bumpCatalogVersion();
     }
 
     public List<IngredientResponse> getAll() {
@@ -30,6 +48,27 @@ public class IngredientService {
         return ingredients.stream().map(this::mapToIngredientResponse).toList();
     }
 
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    public IngredientCatalog getCatalog() {
+        long version = catalogVersion.get();
+        IngredientCatalog catalog = cachedCatalog.get();
+        if (catalog != null && catalog.getVersion() == version) {
+            return catalog;
+        }
+
+        IngredientCatalog freshCatalog = new IngredientCatalog(version, serialize(getAll()));
+
+        // Only cached if no write happened while the catalog was read, otherwise it may already be stale
+        if (catalogVersion.get() == version) {
+            cachedCatalog.set(freshCatalog);
+        }
+
+        return freshCatalog;
+    }
+
     public IngredientResponse getById(String id) {
         Ingredient ingredient = ingredientRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Ingredient not found with id: " + id)
@@ -38,6 +77,20 @@ public class IngredientService {
         return mapToIngredientResponse(ingredient);
     }
 
+    public List<IngredientResponse> getByIds(List<String> ids) {
+        List<Ingredient> ingredients = ingredientRepository.findAllById(ids);
+
+        return ingredients.stream().map(this::mapToIngredientResponse).toList();
+    }
+
+    public List<IngredientResponse> suggest(String prefix, int limit) {
+        return ingredientSuggestionIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    public void rebuildSuggestionIndex() {
+        ingredientSuggestionIndex.replaceAll(getAll());
+    }
+
     public IngredientResponse update(String id, IngredientRequest ingredientRequest) {
         Ingredient ingredient = ingredientRepository.findById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Ingredient not found with id: " + id)
@@ -48,7 +101,12 @@ public class IngredientService {
 
         ingredientRepository.save(ingredient);
 
-        return mapToIngredientResponse(ingredient);
+        IngredientResponse ingredientResponse = mapToIngredientResponse(ingredient);
+        ingredientSuggestionIndex.put(ingredientResponse);
+        bumpCatalogVersion();
+        recipeServiceClient.refreshIngredient(ingredientResponse);
+
+        return ingredientResponse;
     }
 
     public void delete(String id) {
@@ -57,6 +115,22 @@ public class IngredientService {
         );
 
         ingredientRepository.delete(ingredient);
+        ingredientSuggestionIndex.remove(id);
+        bumpCatalogVersion();
+        recipeServiceClient.invalidateIngredient(id);
+    }
+
+    private void bumpCatalogVersion() {
+        catalogVersion.incrementAndGet();
+        cachedCatalog.set(null);
+    }
+
+    private byte[] serialize(List<IngredientResponse> ingredients) {
+        try {
+            return objectMapper.writeValueAsBytes(ingredients);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the ingredient catalog", e);
+        }
     }
 
     private IngredientResponse mapToIngredientResponse(Ingredient ingredient) {
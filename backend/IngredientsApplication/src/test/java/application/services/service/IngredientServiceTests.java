@@ -1,14 +1,19 @@
 package application.services.service;
 
+import application.services.client.RecipeServiceClient;
+import application.services.dto.IngredientCatalog;
 import application.services.dto.IngredientRequest;
 import application.services.dto.IngredientResponse;
 import application.services.exception.ResourceNotFoundException;
+import application.services.index.IngredientSuggestionIndex;
 import application.services.model.Ingredient;
 import application.services.repository.IngredientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
@@ -25,6 +30,15 @@ public class IngredientServiceTests {
     @Mock
     private IngredientRepository ingredientRepository;
 
+    @Mock
+    private RecipeServiceClient recipeServiceClient;
+
+    @Spy
+    private IngredientSuggestionIndex ingredientSuggestionIndex = new IngredientSuggestionIndex();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Test
     public void create_WithValidRequest_SavesIngredient() {
         // Arrange
@@ -67,6 +81,52 @@ public class IngredientServiceTests {
         verify(ingredientRepository, times(1)).findAll();
     }
 
+    @Test
+    public void getCatalog_WithUnchangedCatalog_ServesCachedBytes() throws Exception {
+        // Arrange
+        Ingredient ingredient = Ingredient.builder()
+                .id("id")
+                .name("name")
+                .units(List.of("unit1"))
+                .build();
+        when(ingredientRepository.findAll()).thenReturn(List.of(ingredient));
+
+        // Act
+        IngredientCatalog catalog1 = ingredientService.getCatalog();
+        IngredientCatalog catalog2 = ingredientService.getCatalog();
+
+        // Assert
+        assertSame(catalog1, catalog2);
+        assertEquals(ingredientService.getCatalogVersion(), catalog1.getVersion());
+        IngredientResponse[] ingredients = objectMapper.readValue(catalog1.getJson(), IngredientResponse[].class);
+        assertEquals(1, ingredients.length);
+        assertEquals("name", ingredients[0].getName());
+
+        verify(ingredientRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void getCatalog_AfterCreate_ReadsNewVersion() {
+        // Arrange
+        when(ingredientRepository.findAll()).thenReturn(List.of());
+        IngredientCatalog oldCatalog = ingredientService.getCatalog();
+
+        IngredientRequest ingredientRequest = IngredientRequest.builder()
+                .name("name")
+                .units(List.of("unit1"))
+                .build();
+
+        // Act
+        ingredientService.create(ingredientRequest);
+        IngredientCatalog newCatalog = ingredientService.getCatalog();
+
+        // Assert
+        assertTrue(newCatalog.getVersion() > oldCatalog.getVersion());
+        assertNotSame(oldCatalog, newCatalog);
+
+        verify(ingredientRepository, times(2)).findAll();
+    }
+
     @Test
     public void getById_WithNonExistentId_ThrowsResourceNotFoundException() {
         // Arrange
@@ -97,6 +157,106 @@ public class IngredientServiceTests {
         verify(ingredientRepository, times(1)).findById("id");
     }
 
+    @Test
+    public void getByIds_WithValidRequest_ReturnsFoundIngredients() {
+        // Arrange
+        Ingredient ingredient1 = Ingredient.builder()
+                .id("id1")
+                .name("name1")
+                .units(List.of("unit1"))
+                .build();
+
+        Ingredient ingredient2 = Ingredient.builder()
+                .id("id2")
+                .name("name2")
+                .units(List.of("unit2"))
+                .build();
+        List<String> ids = List.of("id1", "id2", "id3");
+        when(ingredientRepository.findAllById(ids)).thenReturn(List.of(ingredient1, ingredient2));
+
+        // Act
+        List<IngredientResponse> ingredients = ingredientService.getByIds(ids);
+
+        // Assert
+        assertEquals(2, ingredients.size());
+        assertEquals("id1", ingredients.get(0).getId());
+        assertEquals("name1", ingredients.get(0).getName());
+        assertEquals("id2", ingredients.get(1).getId());
+        assertEquals("name2", ingredients.get(1).getName());
+
+        verify(ingredientRepository, times(1)).findAllById(ids);
+        verify(ingredientRepository, never()).findById(any());
+    }
+
+    @Test
+    public void suggest_WithMixedCasePrefix_ReturnsMatchingIngredientsFromIndex() {
+        // Arrange
+        Ingredient ingredient1 = Ingredient.builder()
+                .id("id1")
+                .name("Chocolate")
+                .units(List.of("g"))
+                .build();
+
+        Ingredient ingredient2 = Ingredient.builder()
+                .id("id2")
+                .name("cherry")
+                .units(List.of("pcs"))
+                .build();
+
+        Ingredient ingredient3 = Ingredient.builder()
+                .id("id3")
+                .name("Flour")
+                .units(List.of("g"))
+                .build();
+        when(ingredientRepository.findAll()).thenReturn(List.of(ingredient1, ingredient2, ingredient3));
+        ingredientService.rebuildSuggestionIndex();
+
+        // Act
+        List<IngredientResponse> suggestions = ingredientService.suggest("cH", 10);
+        List<IngredientResponse> limitedSuggestions = ingredientService.suggest("c", 1);
+
+        // Assert
+        assertEquals(2, suggestions.size());
+        assertEquals("cherry", suggestions.get(0).getName());
+        assertEquals("Chocolate", suggestions.get(1).getName());
+        assertEquals(1, limitedSuggestions.size());
+
+        verify(ingredientRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void suggest_AfterUpdateAndDelete_ReflectsChanges() {
+        // Arrange
+        Ingredient ingredient1 = Ingredient.builder()
+                .id("id1")
+                .name("Sugar")
+                .units(List.of("g"))
+                .build();
+
+        Ingredient ingredient2 = Ingredient.builder()
+                .id("id2")
+                .name("Salt")
+                .units(List.of("g"))
+                .build();
+        when(ingredientRepository.findAll()).thenReturn(List.of(ingredient1, ingredient2));
+        when(ingredientRepository.findById("id1")).thenReturn(java.util.Optional.of(ingredient1));
+        when(ingredientRepository.findById("id2")).thenReturn(java.util.Optional.of(ingredient2));
+        ingredientService.rebuildSuggestionIndex();
+
+        IngredientRequest ingredientRequest = IngredientRequest.builder()
+                .name("Brown sugar")
+                .units(List.of("g"))
+                .build();
+
+        // Act
+        ingredientService.update("id1", ingredientRequest);
+        ingredientService.delete("id2");
+
+        // Assert
+        assertTrue(ingredientService.suggest("s", 10).isEmpty());
+        assertEquals("Brown sugar", ingredientService.suggest("brown", 10).get(0).getName());
+    }
+
     @Test
     public void update_WithNonExistentId_ThrowsResourceNotFoundException() {
         // Arrange
@@ -136,6 +296,7 @@ public class IngredientServiceTests {
 
         verify(ingredientRepository, times(1)).findById("id");
         verify(ingredientRepository, times(1)).save(any(Ingredient.class));
+        verify(recipeServiceClient, times(1)).refreshIngredient(ingredientResponse);
     }
 
     @Test
@@ -164,5 +325,6 @@ public class IngredientServiceTests {
         // Assert
         verify(ingredientRepository, times(1)).findById("id");
         verify(ingredientRepository, times(1)).delete(ingredient);
+        verify(recipeServiceClient, times(1)).invalidateIngredient("id");
     }
 }
@@ -0,0 +1,113 @@
+package application.services.repository;
+
+import application.services.model.Recipe;
+import application.services.model.RecipeIngredient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long saving a recipe takes as its ingredient count grows, with the same JDBC batching settings
+ * as the service. Runs against an in-memory H2 database, so it shows the cost of the statements Hibernate
+ * sends rather than network latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeSaveBenchmark {
+    @Param({"1", "5", "50", "120"})
+    private int ingredientCount;
+
+    private ConfigurableApplicationContext context;
+    private RecipeRepository recipeRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--management.tracing.enabled=false");
+        recipeRepository = context.getBean(RecipeRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRecipes() {
+        jdbcTemplate.execute("delete from recipe_ingredient");
+        jdbcTemplate.execute("delete from recipe");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long save() {
+        Recipe recipe = recipe(ingredientCount);
+
+        return transactionTemplate.execute(status -> recipeRepository.save(recipe).getId());
+    }
+
+    private static Recipe recipe(int ingredientCount) {
+        List<RecipeIngredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < ingredientCount; i++) {
+            ingredients.add(RecipeIngredient.builder()
+                    .ingredientId("ingredient" + i)
+                    .ingredientName("name" + i)
+                    .ingredientUnits(new String[]{"g"})
+                    .quantity(1.0)
+                    .unit("g")
+                    .build());
+        }
+
+        return Recipe.builder()
+                .name("name")
+                .instructions(new String[]{"instruction"})
+                .userId("user")
+                .ingredients(ingredients)
+                .build();
+    }
+
+    // Only the JPA layer, none of the service's web clients or Postgres specific initializers
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Recipe.class)
+    @EnableJpaRepositories(basePackageClasses = RecipeRepository.class)
+    static class JpaOnly {
+    }
+}
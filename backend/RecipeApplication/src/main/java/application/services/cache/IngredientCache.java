@@ -0,0 +1,64 @@
+package application.services.cache;
+
+import application.services.dto.IngredientCacheStatsResponse;
+import application.services.dto.IngredientResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bounded, expiring copy of the ingredient catalog so recipe reads and writes
+ * don't have to ask the ingredient service for ingredients it already returned.
+ * Entries are dropped when the ingredient service reports a change.
+ */
+@Component
+public class IngredientCache {
+    private final Cache<String, IngredientResponse> cache;
+
+    public IngredientCache(@Value("${ingredientcache.maxsize}") long maxSize,
+                           @Value("${ingredientcache.ttl}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Map<String, IngredientResponse> getAllPresent(Collection<String> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    public void put(IngredientResponse ingredient) {
+        cache.put(ingredient.getId(), ingredient);
+    }
+
+    public void putAll(Map<String, IngredientResponse> ingredientsById) {
+        cache.putAll(ingredientsById);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public IngredientCacheStatsResponse getStats() {
+        CacheStats stats = cache.stats();
+
+        return IngredientCacheStatsResponse.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+}
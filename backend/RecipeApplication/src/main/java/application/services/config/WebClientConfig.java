@@ -1,14 +1,84 @@
 package application.services.config;
 
+import application.services.resilience.DownstreamGuard;
+import io.micrometer.common.KeyValues;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties(WebClientProperties.class)
 public class WebClientConfig {
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider userServiceConnectionProvider(WebClientProperties properties) {
+        return createConnectionProvider(DownstreamGuard.USER_SERVICE, properties.getUserService());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider ingredientServiceConnectionProvider(WebClientProperties properties) {
+        return createConnectionProvider(DownstreamGuard.INGREDIENT_SERVICE, properties.getIngredientService());
+    }
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
+    public WebClient userServiceWebClient(WebClient.Builder webClientBuilder, WebClientProperties properties) {
+        return createWebClient(webClientBuilder, DownstreamGuard.USER_SERVICE, userServiceConnectionProvider(properties), properties.getUserService());
+    }
+
+    @Bean
+    public WebClient ingredientServiceWebClient(WebClient.Builder webClientBuilder, WebClientProperties properties) {
+        return createWebClient(webClientBuilder, DownstreamGuard.INGREDIENT_SERVICE, ingredientServiceConnectionProvider(properties), properties.getIngredientService());
+    }
+
+    private ConnectionProvider createConnectionProvider(String name, WebClientProperties.Transport transport) {
+        // Named per downstream, so pool usage shows up in reactor.netty.connection.provider.* metrics by service
+        return ConnectionProvider.builder(name)
+                .maxConnections(transport.getMaxConnections())
+                .pendingAcquireMaxCount(transport.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(transport.getPendingAcquireTimeout())
+                .maxIdleTime(transport.getMaxIdleTime())
+                .maxLifeTime(transport.getMaxLifeTime())
+                .evictInBackground(transport.getEvictionInterval())
+                .metrics(true)
                 .build();
     }
+
+    private WebClient createWebClient(WebClient.Builder webClientBuilder, String name, ConnectionProvider connectionProvider, WebClientProperties.Transport transport) {
+        // Response timeouts differ per downstream service and are applied by DownstreamGuard
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) transport.getConnectTimeout().toMillis())
+                .keepAlive(transport.isKeepAlive())
+                .compress(transport.isCompression());
+
+        if (transport.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        // The builder Spring Boot configures records each request in the http.client.requests metric
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationConvention(new DownstreamObservationConvention(name))
+                .build();
+    }
+
+    private static class DownstreamObservationConvention extends DefaultClientRequestObservationConvention {
+        private final String service;
+
+        DownstreamObservationConvention(String service) {
+            this.service = service;
+        }
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+            // Tags timings with the service called, hosts differ between environments
+            return super.getLowCardinalityKeyValues(context).and("service", service);
+        }
+    }
 }
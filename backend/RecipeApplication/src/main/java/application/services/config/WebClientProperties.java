@@ -0,0 +1,36 @@
+package application.services.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Transport settings of the clients for the user and ingredient services, bound from webclient.user-service.*
+ * and webclient.ingredient-service.*.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "webclient")
+public class WebClientProperties {
+    private Transport userService = new Transport();
+    private Transport ingredientService = new Transport();
+
+    @Getter
+    @Setter
+    public static class Transport {
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private int maxConnections = 50;
+        // Requests waiting for a connection beyond this count fail right away instead of queueing
+        private int pendingAcquireMaxCount = 100;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        private boolean keepAlive = true;
+        // HTTP/2 over plain TCP, falls back to HTTP/1.1 when the server doesn't upgrade
+        private boolean h2c = false;
+        private boolean compression = true;
+    }
+}
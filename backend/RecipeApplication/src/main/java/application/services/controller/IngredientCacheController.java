@@ -0,0 +1,32 @@
+package application.services.controller;
+
+import application.services.cache.IngredientCache;
+import application.services.dto.IngredientCacheStatsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("api/ingredient-cache")
+@RequiredArgsConstructor
+public class IngredientCacheController {
+    private final IngredientCache ingredientCache;
+
+    @GetMapping("stats")
+    @ResponseStatus(HttpStatus.OK)
+    public IngredientCacheStatsResponse getStats() {
+        return ingredientCache.getStats();
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidate(@PathVariable String id) {
+        ingredientCache.invalidate(id);
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void invalidateAll() {
+        ingredientCache.invalidateAll();
+    }
+}
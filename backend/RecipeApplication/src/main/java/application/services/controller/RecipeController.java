@@ -1,18 +1,18 @@
 package application.services.controller;
 
+import application.services.dto.RecipePageResponse;
 import application.services.dto.RecipeRequest;
 import application.services.dto.RecipeResponse;
-import application.services.exception.DelimiterInInstructionException;
+import application.services.exception.InvalidPageRequestException;
 import application.services.exception.ResourceNotFoundException;
-import application.services.model.Recipe;
 import application.services.service.RecipeService;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("api/recipe")
@@ -22,38 +22,56 @@ public class RecipeController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public RecipeResponse create(@RequestBody RecipeRequest recipeRequest, @RequestHeader("X-User-Email") String email) {
+    public Mono<RecipeResponse> create(@RequestBody RecipeRequest recipeRequest, @RequestHeader("X-User-Email") String email) {
         return recipeService.create(recipeRequest, email);
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<RecipeResponse> getAll() {
-        return recipeService.getAll();
+    public Mono<RecipePageResponse> getAll(@RequestParam(defaultValue = "0") Long after, @RequestParam(defaultValue = "20") int limit) {
+        return recipeService.getAll(after, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<RecipeResponse> streamAll() {
+        return recipeService.streamAll();
+    }
+
+    @GetMapping("search")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<RecipePageResponse> search(@RequestParam("q") String query, @RequestParam(defaultValue = "0") Long after, @RequestParam(defaultValue = "20") int limit) {
+        return recipeService.search(query, after, limit);
     }
 
     @GetMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public RecipeResponse getById(@PathVariable Long id) {
+    public Mono<RecipeResponse> getById(@PathVariable Long id) {
         return recipeService.getById(id);
     }
 
     @GetMapping("me")
     @ResponseStatus(HttpStatus.OK)
-    public List<RecipeResponse> getAllForUserSelf(@RequestHeader("X-User-Email") String email) {
-        return recipeService.getAllForUserSelf(email);
+    public Mono<RecipePageResponse> getAllForUserSelf(@RequestHeader("X-User-Email") String email, @RequestParam(defaultValue = "0") Long after, @RequestParam(defaultValue = "20") int limit) {
+        return recipeService.getAllForUserSelf(email, after, limit);
     }
 
     @PutMapping("{id}")
     @ResponseStatus(HttpStatus.OK)
-    public RecipeResponse update(@PathVariable Long id, @RequestBody RecipeRequest recipeRequest, @RequestHeader("X-User-Email") String email) {
+    public Mono<RecipeResponse> update(@PathVariable Long id, @RequestBody RecipeRequest recipeRequest, @RequestHeader("X-User-Email") String email) {
         return recipeService.update(id, recipeRequest, email);
     }
 
+    @PatchMapping("{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<RecipeResponse> patch(@PathVariable Long id, @RequestBody RecipeRequest recipeRequest, @RequestHeader("X-User-Email") String email) {
+        return recipeService.patch(id, recipeRequest, email);
+    }
+
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable Long id) {
-        recipeService.delete(id);
+    public Mono<Void> delete(@PathVariable Long id) {
+        return recipeService.delete(id);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
@@ -61,8 +79,8 @@ public class RecipeController {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler(DelimiterInInstructionException.class)
-    public ResponseEntity<String> handleDelimiterInInstructionException(DelimiterInInstructionException e) {
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<String> handleInvalidPageRequestException(InvalidPageRequestException e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 }
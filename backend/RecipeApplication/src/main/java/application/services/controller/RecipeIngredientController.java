@@ -0,0 +1,21 @@
+package application.services.controller;
+
+import application.services.dto.IngredientResponse;
+import application.services.service.RecipeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("api/recipe-ingredient")
+@RequiredArgsConstructor
+public class RecipeIngredientController {
+    private final RecipeService recipeService;
+
+    @PutMapping("{ingredientId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> refreshIngredient(@PathVariable String ingredientId, @RequestBody IngredientResponse ingredient) {
+        return recipeService.refreshIngredientSnapshot(ingredientId, ingredient);
+    }
+}
@@ -0,0 +1,17 @@
+package application.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class RecipePageResponse {
+    private List<RecipeResponse> recipes;
+    private Long nextCursor;
+}
@@ -1,7 +0,0 @@
-package application.services.exception;
-
-public class DelimiterInInstructionException extends RuntimeException {
-    public DelimiterInInstructionException(String message) {
-        super(message);
-    }
-}
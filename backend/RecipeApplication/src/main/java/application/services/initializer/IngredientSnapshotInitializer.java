@@ -0,0 +1,23 @@
+package application.services.initializer;
+
+import application.services.service.RecipeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Fills in ingredient snapshots for recipe ingredients stored before recipes kept their own copy.
+ * Runs in the background so startup doesn't wait on the ingredient service.
+ */
+@Slf4j
+@Configuration
+public class IngredientSnapshotInitializer {
+    @Bean
+    CommandLineRunner backfillIngredientSnapshots(RecipeService recipeService) {
+        return args -> recipeService.backfillIngredientSnapshots()
+                .doOnError(e -> log.warn("Could not backfill ingredient snapshots: {}", e.getMessage()))
+                .onErrorComplete()
+                .subscribe();
+    }
+}
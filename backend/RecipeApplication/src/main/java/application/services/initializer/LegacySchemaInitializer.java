@@ -0,0 +1,128 @@
+package application.services.initializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Moves data out of schema leftovers that Hibernate's ddl update can't migrate by itself.
+ */
+@Slf4j
+@Configuration
+public class LegacySchemaInitializer {
+    private static final String LEGACY_INSTRUCTION_DELIMITER = "___";
+    private static final long SEQUENCE_ALLOCATION_SIZE = 50;
+
+    static final String JOIN_TABLE_MIGRATION = "legacyJoinTableMigration";
+
+    // Hibernate would add recipe_id as a not null column, which fails on a table that already has rows. The
+    // join table is therefore folded into recipe_id before the EntityManagerFactory runs its ddl update
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor joinTableMigrationBeforeHibernate() {
+        return new EntityManagerFactoryDependsOnPostProcessor(JOIN_TABLE_MIGRATION);
+    }
+
+    @Bean(JOIN_TABLE_MIGRATION)
+    InitializingBean legacyJoinTableMigration(JdbcTemplate jdbcTemplate) {
+        return () -> migrateJoinTable(jdbcTemplate);
+    }
+
+    @Bean
+    CommandLineRunner migrateLegacySchema(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            // Instructions used to be a single "___" delimited string instead of an array column
+            if (columnExists(jdbcTemplate, "recipe", "instructions")) {
+                List<Object[]> rows = jdbcTemplate.query(
+                        "select id, instructions from recipe where instruction_steps is null and instructions is not null",
+                        (rs, rowNum) -> new Object[]{rs.getLong("id"), splitLegacyInstructions(rs.getString("instructions"))});
+
+                jdbcTemplate.batchUpdate("update recipe set instruction_steps = ? where id = ?", rows, 100, (ps, row) -> {
+                    Array steps = ps.getConnection().createArrayOf("text", (String[]) row[1]);
+                    ps.setArray(1, steps);
+                    ps.setLong(2, (Long) row[0]);
+                });
+                jdbcTemplate.execute("alter table recipe drop column instructions");
+
+                log.info("Moved instructions of {} recipes to the instruction_steps column", rows.size());
+            }
+
+            // Ids used to come from identity columns, move the pooled sequences past the ids handed out by them
+            migrateIdentityColumn(jdbcTemplate, "recipe", "recipe_seq");
+            migrateIdentityColumn(jdbcTemplate, "recipe_ingredient", "recipe_ingredient_seq");
+        };
+    }
+
+    static void migrateJoinTable(JdbcTemplate jdbcTemplate) {
+        // Recipe ingredients used to be linked through a join table instead of a recipe_id column
+        if (!tableExists(jdbcTemplate, "recipe_ingredients")) {
+            return;
+        }
+
+        jdbcTemplate.execute("alter table recipe_ingredient add column if not exists recipe_id bigint");
+        int migrated = jdbcTemplate.update("""
+                update recipe_ingredient ri
+                set recipe_id = (select ris.recipe_id from recipe_ingredients ris where ris.ingredients_id = ri.id)
+                where ri.recipe_id is null""");
+        // Rows no recipe linked to were unreachable already, they would keep recipe_id from becoming not null
+        int orphans = jdbcTemplate.update("delete from recipe_ingredient where recipe_id is null");
+        jdbcTemplate.execute("drop table recipe_ingredients");
+        jdbcTemplate.execute("alter table recipe_ingredient alter column recipe_id set not null");
+
+        log.info("Moved {} recipe ingredients from the recipe_ingredients join table, dropped {} unlinked ones", migrated, orphans);
+    }
+
+    static void migrateIdentityColumn(JdbcTemplate jdbcTemplate, String tableName, String sequenceName) {
+        String identitySequenceName = tableName + "_id_seq";
+        if (!sequenceExists(jdbcTemplate, identitySequenceName)) {
+            return;
+        }
+
+        // The pooled optimizer hands out the allocationSize ids below each sequence value
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + tableName, Long.class);
+        jdbcTemplate.queryForObject("select setval(?, ?)", Long.class, sequenceName, maxId + SEQUENCE_ALLOCATION_SIZE);
+        jdbcTemplate.execute("alter table " + tableName + " alter column id drop default");
+        jdbcTemplate.execute("drop sequence " + identitySequenceName);
+
+        log.info("Moved {} ids past {} to the {} sequence", tableName, maxId, sequenceName);
+    }
+
+    static String[] splitLegacyInstructions(String instructions) {
+        return instructions.split(Pattern.quote(LEGACY_INSTRUCTION_DELIMITER));
+    }
+
+    static boolean tableExists(JdbcTemplate jdbcTemplate, String tableName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where lower(table_name) = ?",
+                Integer.class,
+                tableName);
+
+        return count != null && count > 0;
+    }
+
+    static boolean columnExists(JdbcTemplate jdbcTemplate, String tableName, String columnName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where lower(table_name) = ? and lower(column_name) = ?",
+                Integer.class,
+                tableName,
+                columnName);
+
+        return count != null && count > 0;
+    }
+
+    static boolean sequenceExists(JdbcTemplate jdbcTemplate, String sequenceName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.sequences where lower(sequence_name) = ?",
+                Integer.class,
+                sequenceName);
+
+        return count != null && count > 0;
+    }
+}
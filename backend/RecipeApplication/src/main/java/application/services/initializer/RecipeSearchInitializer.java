@@ -0,0 +1,44 @@
+package application.services.initializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Sets up the search_vector column behind recipe search. Hibernate doesn't know about tsvector columns,
+ * so the column, the trigger that keeps it in sync and its GIN index are created here.
+ */
+@Slf4j
+@Configuration
+public class RecipeSearchInitializer {
+    @Bean
+    CommandLineRunner setUpRecipeSearch(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            jdbcTemplate.execute("alter table recipe add column if not exists search_vector tsvector");
+            jdbcTemplate.execute("""
+                    create or replace function recipe_search_vector_update() returns trigger as $$
+                    begin
+                        new.search_vector :=
+                                setweight(to_tsvector('english', coalesce(new.name, '')), 'A') ||
+                                setweight(to_tsvector('english', coalesce(new.description, '')), 'B') ||
+                                setweight(to_tsvector('english', coalesce(array_to_string(new.instruction_steps, ' '), '')), 'C');
+                        return new;
+                    end
+                    $$ language plpgsql""");
+            jdbcTemplate.execute("drop trigger if exists recipe_search_vector_trigger on recipe");
+            jdbcTemplate.execute("""
+                    create trigger recipe_search_vector_trigger
+                    before insert or update of name, description, instruction_steps on recipe
+                    for each row execute function recipe_search_vector_update()""");
+            jdbcTemplate.execute("create index if not exists idx_recipe_search_vector on recipe using gin (search_vector)");
+
+            // Recipes stored before the trigger existed get their vector by running it once
+            int indexed = jdbcTemplate.update("update recipe set name = name where search_vector is null");
+            if (indexed > 0) {
+                log.info("Indexed {} recipes for search", indexed);
+            }
+        };
+    }
+}
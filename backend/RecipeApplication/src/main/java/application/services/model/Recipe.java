@@ -2,6 +2,7 @@ package application.services.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Length;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "recipe")
+@Table(name = "recipe", indexes = @Index(name = "idx_recipe_user_id_id", columnList = "userId, id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -20,14 +21,17 @@ import java.util.List;
 @Builder
 public class Recipe {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
     private Long id;
     private String name;
     private Duration duration;
     private Integer amountOfPeople;
     private String description;
-    private String instructions;
-    @OneToMany(cascade = CascadeType.ALL)
+    @Column(name = "instruction_steps", length = Length.LONG32)
+    private String[] instructions;
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "recipe_id", nullable = false, updatable = false)
     private List<RecipeIngredient> ingredients = new ArrayList<>();
     private String userId;
 
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "recipe_ingredient")
+@Table(name = "recipe_ingredient", indexes = {
+        @Index(name = "idx_recipe_ingredient_recipe_id", columnList = "recipe_id"),
+        @Index(name = "idx_recipe_ingredient_ingredient_id", columnList = "ingredientId")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -12,9 +15,13 @@ import lombok.*;
 @Builder
 public class RecipeIngredient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredient_seq")
+    @SequenceGenerator(name = "recipe_ingredient_seq", sequenceName = "recipe_ingredient_seq", allocationSize = 50)
     private Long id;
     private String ingredientId;
+    // Copied from the ingredient service when the recipe is written and refreshed when the ingredient changes
+    private String ingredientName;
+    private String[] ingredientUnits;
     private Double quantity;
     private String unit;
 }
@@ -2,6 +2,19 @@ package application.services.repository;
 
 import application.services.model.RecipeIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Integer> {
+import java.util.List;
+
+public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Long> {
+    @Query("select distinct ri.ingredientId from RecipeIngredient ri where ri.ingredientName is null")
+    List<String> findIngredientIdsWithoutSnapshot();
+
+    @Transactional
+    @Modifying
+    @Query("update RecipeIngredient ri set ri.ingredientName = :name, ri.ingredientUnits = :units where ri.ingredientId = :ingredientId")
+    int updateSnapshot(@Param("ingredientId") String ingredientId, @Param("name") String name, @Param("units") String[] units);
 }
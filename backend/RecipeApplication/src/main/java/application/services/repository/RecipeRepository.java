@@ -1,10 +1,36 @@
 package application.services.repository;
 
 import application.services.model.Recipe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
-    List<Recipe> findAllByUserIdEquals(String userId);
+    // Recipes are mapped outside of a transaction, so their ingredients are fetched up front
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findById(Long id);
+
+    @EntityGraph(attributePaths = "ingredients")
+    List<Recipe> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Pages are selected by id first so the limit is applied in SQL rather than to the fetched ingredient rows
+    @Query("select r.id from Recipe r where r.id > :after order by r.id")
+    List<Long> findPageIds(@Param("after") Long after, Pageable pageable);
+
+    @Query("select r.id from Recipe r where r.userId = :userId and r.id > :after order by r.id")
+    List<Long> findPageIdsByUserId(@Param("userId") String userId, @Param("after") Long after, Pageable pageable);
+
+    // Ranked by relevance, the search_vector column and its GIN index are maintained by RecipeSearchInitializer
+    @Query(value = """
+            select r.id from recipe r, websearch_to_tsquery('english', :query) q
+            where r.search_vector @@ q
+            order by ts_rank(r.search_vector, q) desc, r.id
+            limit :limit offset :offset""", nativeQuery = true)
+    List<Long> searchIds(@Param("query") String query, @Param("offset") long offset, @Param("limit") int limit);
 }
@@ -0,0 +1,96 @@
+package application.services.resilience;
+
+import application.services.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps calls to the user and ingredient services in a timeout and a circuit breaker per service. The last
+ * value each call returned is kept, so it can be served while that service is failing or its breaker is open.
+ */
+@Component
+public class DownstreamGuard {
+    public static final String USER_SERVICE = "userservice";
+    public static final String INGREDIENT_SERVICE = "ingredientservice";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Duration> timeouts;
+    private final Cache<String, Object> lastKnownGood;
+
+    public DownstreamGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                           MeterRegistry meterRegistry,
+                           @Value("${userservice.timeout}") Duration userServiceTimeout,
+                           @Value("${ingredientservice.timeout}") Duration ingredientServiceTimeout,
+                           @Value("${lastknowngood.maxsize}") long maxSize) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.meterRegistry = meterRegistry;
+        this.timeouts = Map.of(USER_SERVICE, userServiceTimeout, INGREDIENT_SERVICE, ingredientServiceTimeout);
+        this.lastKnownGood = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public <T> Mono<T> call(String service, String key, Mono<T> call) {
+        return guard(service, call)
+                .doOnNext(value -> lastKnownGood.put(toCacheKey(service, key), value))
+                .onErrorResume(this::isUnavailable, e -> this.<T>fallback(service, List.of(key), e).map(values -> values.get(key)));
+    }
+
+    public <T> Mono<Map<String, T>> callAll(String service, Collection<String> keys, Mono<Map<String, T>> call) {
+        return guard(service, call)
+                .doOnNext(values -> values.forEach((key, value) -> lastKnownGood.put(toCacheKey(service, key), value)))
+                .onErrorResume(this::isUnavailable, e -> fallback(service, keys, e));
+    }
+
+    private <T> Mono<T> guard(String service, Mono<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(service);
+
+        return call.timeout(timeouts.get(service))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private boolean isUnavailable(Throwable e) {
+        // A missing user or ingredient is an answer, not an outage
+        return !(e instanceof ResourceNotFoundException);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<Map<String, T>> fallback(String service, Collection<String> keys, Throwable e) {
+        Map<String, T> values = new HashMap<>();
+        for (String key : keys) {
+            T value = (T) lastKnownGood.getIfPresent(toCacheKey(service, key));
+            if (value == null) {
+                // Part of an answer could be mistaken for a complete one, so it is all or nothing
+                countFallback(service, "miss");
+                return Mono.error(e);
+            }
+
+            values.put(key, value);
+        }
+
+        countFallback(service, "hit");
+        return Mono.just(values);
+    }
+
+    private void countFallback(String service, String result) {
+        meterRegistry.counter("downstream.fallback", "service", service, "result", result).increment();
+    }
+
+    private String toCacheKey(String service, String key) {
+        return service + ":" + key;
+    }
+}
@@ -1,32 +1,52 @@
 package application.services.service;
 
+import application.services.cache.IngredientCache;
 import application.services.dto.*;
-import application.services.exception.DelimiterInInstructionException;
+import application.services.exception.InvalidPageRequestException;
 import application.services.exception.ResourceNotFoundException;
 import application.services.model.Recipe;
 import application.services.model.RecipeIngredient;
+import application.services.repository.RecipeIngredientRepository;
 import application.services.repository.RecipeRepository;
-import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
+import application.services.resilience.DownstreamGuard;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class RecipeService {
     private final RecipeRepository recipeRepository;
-    private final WebClient webClient;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final WebClient userServiceWebClient;
+    private final WebClient ingredientServiceWebClient;
+    private final IngredientCache ingredientCache;
+    private final DownstreamGuard downstreamGuard;
 
     @Value("${userservice.baseurl}")
     private String userServiceBaseUrl;
@@ -34,57 +54,194 @@ public class RecipeService {
     @Value("${ingredientservice.baseurl}")
     private String ingredientServiceBaseUrl;
 
-    private final String INSTRUCTION_DELIMITER = "___";
+    @Value("${ingredientservice.batchsize}")
+    private int ingredientBatchSize;
 
-    private UserResponse getUserById(String id) {
-        return webClient.get()
-                .uri(String.format("http://%s/api/user/" + id, userServiceBaseUrl))
+    @Value("${ingredientservice.maxconcurrency}")
+    private int ingredientMaxConcurrency;
+
+    @Value("${recipestream.batchsize}")
+    private int streamBatchSize;
+
+    private final int MAX_PAGE_SIZE = 100;
+
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+    private record RecipePage(List<Recipe> recipes, Long nextCursor) {
+    }
+
+    private Mono<UserResponse> getUserById(String id) {
+        return downstreamGuard.call(DownstreamGuard.USER_SERVICE, id, userServiceWebClient.get()
+                .uri(String.format("http://%s/api/user/{id}", userServiceBaseUrl), id)
                 .retrieve()
                 .onStatus(
                         HttpStatusCode::is4xxClientError,
                         clientResponse -> {throw new ResourceNotFoundException("User not found with id: " + id);})
-                .bodyToMono(UserResponse.class)
-                .block();
+                .bodyToMono(UserResponse.class));
     }
 
-    private UserResponse getUserByEmail(String email) {
-        return webClient.get()
-                .uri(String.format("http://%s/api/user/email/" + email, userServiceBaseUrl))
+    private Mono<UserResponse> getUserByEmail(String email) {
+        return downstreamGuard.call(DownstreamGuard.USER_SERVICE, "email:" + email, userServiceWebClient.get()
+                .uri(String.format("http://%s/api/user/email/{email}", userServiceBaseUrl), email)
                 .retrieve()
                 .onStatus(
                         HttpStatusCode::is4xxClientError,
                         clientResponse -> {throw new ResourceNotFoundException("User not found with email: " + email);})
-                .bodyToMono(UserResponse.class)
-                .block();
+                .bodyToMono(UserResponse.class));
     }
 
-    private IngredientResponse getIngredient(String id) {
-        return webClient.get()
-                .uri(String.format("http://%s/api/ingredient/" + id, ingredientServiceBaseUrl))
+    private Mono<Map<String, UserResponse>> getUsersByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+
+        return downstreamGuard.callAll(DownstreamGuard.USER_SERVICE, ids, userServiceWebClient.post()
+                .uri(String.format("http://%s/api/user/batch", userServiceBaseUrl))
+                .bodyValue(ids)
                 .retrieve()
-                .onStatus(
-                        HttpStatusCode::is4xxClientError,
-                        clientResponse -> {throw new ResourceNotFoundException("Ingredient not found with id: " + id);})
-                .bodyToMono(IngredientResponse.class)
-                .block();
+                .bodyToMono(new ParameterizedTypeReference<Map<String, UserResponse>>() {})
+                .defaultIfEmpty(Collections.emptyMap()));
     }
 
-    private RecipeIngredient mapToRecipeIngredient(RecipeIngredientRequest recipeIngredientRequest) {
-        getIngredient(recipeIngredientRequest.getId());
+    private Mono<Map<String, UserResponse>> getUsersForRecipes(List<Recipe> recipes) {
+        Set<String> userIds = recipes.stream()
+                .map(Recipe::getUserId)
+                .collect(Collectors.toSet());
 
-        return RecipeIngredient.builder()
-                .ingredientId(recipeIngredientRequest.getId())
-                .quantity(recipeIngredientRequest.getQuantity())
-                .unit(recipeIngredientRequest.getUnit())
-                .build();
+        return getUsersByIds(userIds);
     }
 
-    private RecipeIngredientResponse mapToRecipeIngredientResponse(RecipeIngredient recipeIngredient) {
-        IngredientResponse ingredientResponse = getIngredient(recipeIngredient.getIngredientId());
+    private UserResponse findUser(Map<String, UserResponse> users, String id) {
+        UserResponse user = users.get(id);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+
+        return user;
+    }
+
+    private Mono<Map<String, IngredientResponse>> fetchIngredients(List<String> ids) {
+        Mono<Map<String, IngredientResponse>> ingredients = ingredientServiceWebClient.post()
+                .uri(String.format("http://%s/api/ingredient/batch", ingredientServiceBaseUrl))
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToFlux(IngredientResponse.class)
+                .collectMap(IngredientResponse::getId);
+
+        return downstreamGuard.callAll(DownstreamGuard.INGREDIENT_SERVICE, ids, ingredients);
+    }
+
+    private Mono<Map<String, IngredientResponse>> getIngredientsByIds(Collection<String> ids) {
+        Map<String, IngredientResponse> cachedIngredients = ingredientCache.getAllPresent(ids);
+
+        List<String> missingIds = ids.stream()
+                .filter(id -> !cachedIngredients.containsKey(id))
+                .toList();
+
+        // Large id sets are split into batches that are fetched concurrently, up to a fixed limit
+        return Flux.fromIterable(missingIds)
+                .buffer(ingredientBatchSize)
+                .flatMap(this::fetchIngredients, ingredientMaxConcurrency)
+                .doOnNext(ingredientCache::putAll)
+                .flatMapIterable(Map::values)
+                .collectMap(IngredientResponse::getId, Function.identity(), () -> new HashMap<>(cachedIngredients));
+    }
 
+    private Mono<Map<String, IngredientResponse>> getIngredientsForRequest(RecipeRequest recipeRequest) {
+        Set<String> ingredientIds = recipeRequest.getIngredients().stream()
+                .map(RecipeIngredientRequest::getId)
+                .collect(Collectors.toSet());
+
+        return getIngredientsByIds(ingredientIds);
+    }
+
+    private IngredientResponse findIngredient(Map<String, IngredientResponse> ingredients, String id) {
+        IngredientResponse ingredient = ingredients.get(id);
+        if (ingredient == null) {
+            throw new ResourceNotFoundException("Ingredient not found with id: " + id);
+        }
+
+        return ingredient;
+    }
+
+    private <T> Mono<T> fromRepository(Callable<T> callable) {
+        // JPA calls block, so keep them off the threads that serve the reactive pipeline. The request's trace
+        // travels in the Reactor context and is restored on that thread, so repository spans join it
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    try (ContextSnapshot.Scope scope = contextSnapshotFactory.setThreadLocalsFrom(context)) {
+                        return callable.call();
+                    }
+                }))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Recipe findRecipe(Long id) {
+        return recipeRepository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recipe not found with id: " + id)
+        );
+    }
+
+    private RecipePage findRecipePage(List<Long> pageIds, int pageSize) {
+        // One id more than the page size is requested to find out whether another page follows
+        boolean hasNextPage = pageIds.size() > pageSize;
+        List<Long> ids = hasNextPage ? pageIds.subList(0, pageSize) : pageIds;
+
+        List<Recipe> recipes = ids.isEmpty() ? List.of() : recipeRepository.findAllByIdInOrderByIdAsc(ids);
+        Long nextCursor = hasNextPage ? ids.get(ids.size() - 1) : null;
+
+        return new RecipePage(recipes, nextCursor);
+    }
+
+    private RecipePage findSearchPage(String query, long offset, int pageSize) {
+        List<Long> rankedIds = recipeRepository.searchIds(query, offset, pageSize + 1);
+        boolean hasNextPage = rankedIds.size() > pageSize;
+        List<Long> ids = hasNextPage ? rankedIds.subList(0, pageSize) : rankedIds;
+
+        // The recipes are loaded by id, put them back in the order of their rank
+        Map<Long, Recipe> recipesById = ids.isEmpty() ? Map.of() : recipeRepository.findAllByIdInOrderByIdAsc(ids)
+                .stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<Recipe> recipes = ids.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        Long nextCursor = hasNextPage ? offset + pageSize : null;
+
+        return new RecipePage(recipes, nextCursor);
+    }
+
+    private RecipePage findRecipePageAfter(Long after, int pageSize) {
+        return findRecipePage(recipeRepository.findPageIds(after, PageRequest.ofSize(pageSize + 1)), pageSize);
+    }
+
+    private int toPageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    private List<RecipeIngredient> mapToRecipeIngredients(List<RecipeIngredientRequest> recipeIngredientRequests, Map<String, IngredientResponse> ingredients) {
+        return recipeIngredientRequests.stream()
+                .map(recipeIngredientRequest -> {
+                    IngredientResponse ingredient = findIngredient(ingredients, recipeIngredientRequest.getId());
+
+                    return RecipeIngredient.builder()
+                            .ingredientId(recipeIngredientRequest.getId())
+                            .ingredientName(ingredient.getName())
+                            .ingredientUnits(toUnits(ingredient))
+                            .quantity(recipeIngredientRequest.getQuantity())
+                            .unit(recipeIngredientRequest.getUnit())
+                            .build();
+                })
+                .toList();
+    }
+
+    private String[] toUnits(IngredientResponse ingredient) {
+        return ingredient.getUnits() == null ? null : ingredient.getUnits().toArray(String[]::new);
+    }
+
+    private RecipeIngredientResponse mapToRecipeIngredientResponse(RecipeIngredient recipeIngredient) {
         return RecipeIngredientResponse.builder()
-                .id(ingredientResponse.getId())
-                .name(ingredientResponse.getName())
+                .id(recipeIngredient.getIngredientId())
+                .name(recipeIngredient.getIngredientName())
                 .quantity(recipeIngredient.getQuantity())
                 .unit(recipeIngredient.getUnit())
                 .build();
@@ -101,15 +258,13 @@ public class RecipeService {
                 .image(user.getImage())
                 .build();
 
-        List<String> instructions = splitInstruction(recipe.getInstructions());
-
         return RecipeResponse.builder()
                 .id(recipe.getId())
                 .name(recipe.getName())
                 .duration(recipe.getDuration())
                 .amountOfPeople(recipe.getAmountOfPeople())
                 .description(recipe.getDescription())
-                .instructions(instructions)
+                .instructions(List.of(recipe.getInstructions()))
                 .ingredients(ingredientResponses)
                 .user(recipeUserResponse)
                 .createdAt(recipe.getCreatedAt())
@@ -117,104 +272,215 @@ public class RecipeService {
                 .build();
     }
 
-    private String concatInstruction(List<String> instructions) throws DelimiterInInstructionException {
-        //TODO: Sanitize instructions
-
-        boolean containsDelimiter = instructions.stream()
-                .anyMatch(instruction -> instruction.contains(INSTRUCTION_DELIMITER));
-        if (containsDelimiter) {
-            throw new DelimiterInInstructionException("Instruction contains delimiter.");
-        }
+    private Flux<RecipeResponse> mapToRecipeResponses(List<Recipe> recipes, Mono<Map<String, UserResponse>> users) {
+        return users.flatMapIterable(userMap -> recipes.stream()
+                .map(recipe -> mapToRecipeResponse(recipe, findUser(userMap, recipe.getUserId())))
+                .toList());
+    }
 
-        return String.join(INSTRUCTION_DELIMITER, instructions);
+    private Mono<RecipePageResponse> mapToRecipePageResponse(RecipePage page, Mono<Map<String, UserResponse>> users) {
+        return mapToRecipeResponses(page.recipes(), users)
+                .collectList()
+                .map(recipeResponses -> RecipePageResponse.builder()
+                        .recipes(recipeResponses)
+                        .nextCursor(page.nextCursor())
+                        .build());
     }
 
-    private List<String> splitInstruction(String instruction) {
-        return List.of(instruction.split(INSTRUCTION_DELIMITER));
+    private String[] toInstructions(RecipeRequest recipeRequest) {
+        //TODO: Sanitize instructions
+        return recipeRequest.getInstructions().toArray(String[]::new);
     }
 
-    public RecipeResponse create(RecipeRequest recipeRequest, String email) {
-        UserResponse user = getUserByEmail(email);
+    public Mono<RecipeResponse> create(RecipeRequest recipeRequest, String email) {
+        return Mono.zip(getUserByEmail(email), getIngredientsForRequest(recipeRequest))
+                .flatMap(tuple -> fromRepository(() -> {
+                    UserResponse user = tuple.getT1();
+                    Map<String, IngredientResponse> ingredients = tuple.getT2();
 
-        String instructions = concatInstruction(recipeRequest.getInstructions());
+                    Recipe recipe = Recipe.builder()
+                            .name(recipeRequest.getName())
+                            .duration(recipeRequest.getDuration())
+                            .amountOfPeople(recipeRequest.getAmountOfPeople())
+                            .description(recipeRequest.getDescription())
+                            .instructions(toInstructions(recipeRequest))
+                            .userId(user.getId())
+                            .build();
 
-        Recipe recipe = Recipe.builder()
-                .name(recipeRequest.getName())
-                .duration(recipeRequest.getDuration())
-                .amountOfPeople(recipeRequest.getAmountOfPeople())
-                .description(recipeRequest.getDescription())
-                .instructions(instructions)
-                .userId(user.getId())
-                .build();
+                    List<RecipeIngredient> recipeIngredients = mapToRecipeIngredients(recipeRequest.getIngredients(), ingredients);
 
-        List<RecipeIngredient> recipeIngredients = recipeRequest.getIngredients().stream()
-                .map(this::mapToRecipeIngredient)
-                .toList();
+                    recipe.setIngredients(recipeIngredients);
+
+                    recipeRepository.save(recipe);
 
-        recipe.setIngredients(recipeIngredients);
+                    return mapToRecipeResponse(recipe, user);
+                }));
+    }
 
-        recipeRepository.save(recipe);
+    public Mono<RecipePageResponse> getAll(Long after, int limit) {
+        int pageSize = toPageSize(limit);
 
-        return mapToRecipeResponse(recipe, user);
+        return fromRepository(() -> findRecipePageAfter(after, pageSize))
+                .flatMap(page -> mapToRecipePageResponse(page, getUsersForRecipes(page.recipes())));
     }
 
-    public List<RecipeResponse> getAll() {
-        List<Recipe> recipes = recipeRepository.findAll();
+    public Flux<RecipeResponse> streamAll() {
+        // Walks the table batch by batch along the id cursor, so only one batch is held in memory at a time
+        return fromRepository(() -> findRecipePageAfter(0L, streamBatchSize))
+                .expand(page -> page.nextCursor() == null
+                        ? Mono.empty()
+                        : fromRepository(() -> findRecipePageAfter(page.nextCursor(), streamBatchSize)))
+                .concatMap(page -> mapToRecipeResponses(page.recipes(), getUsersForRecipes(page.recipes())), 1);
+    }
 
-        return recipes.stream()
-                .map(recipe -> mapToRecipeResponse(recipe, getUserById(recipe.getUserId())))
-                .toList();
+    public Mono<RecipePageResponse> search(String query, Long after, int limit) {
+        if (query == null || query.isBlank()) {
+            return Mono.just(RecipePageResponse.builder().recipes(List.of()).build());
+        }
+        if (after < 0) {
+            return Mono.error(new InvalidPageRequestException("Search offset must not be negative: " + after));
+        }
+
+        int pageSize = toPageSize(limit);
+
+        // Results are ranked rather than ordered by id, so the cursor is the offset of the next page
+        return fromRepository(() -> findSearchPage(query, after, pageSize))
+                .flatMap(page -> mapToRecipePageResponse(page, getUsersForRecipes(page.recipes())));
     }
 
-    public RecipeResponse getById(Long id) {
-        Recipe recipe = recipeRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recipe not found with id: " + id)
-        );
+    public Mono<RecipeResponse> getById(Long id) {
+        return fromRepository(() -> findRecipe(id))
+                .flatMap(recipe -> getUserById(recipe.getUserId())
+                        .map(user -> mapToRecipeResponse(recipe, user)));
+    }
 
-        UserResponse user = getUserById(recipe.getUserId());
+    public Mono<RecipePageResponse> getAllForUserSelf(String email, Long after, int limit) {
+        int pageSize = toPageSize(limit);
 
-        return mapToRecipeResponse(recipe, user);
+        return getUserByEmail(email)
+                .flatMap(user -> fromRepository(() -> findRecipePage(recipeRepository.findPageIdsByUserId(user.getId(), after, PageRequest.ofSize(pageSize + 1)), pageSize))
+                        .flatMap(page -> mapToRecipePageResponse(page, Mono.just(Map.of(user.getId(), user)))));
     }
 
-    public List<RecipeResponse> getAllForUserSelf(String email) {
-        UserResponse user = getUserByEmail(email);
+    public Mono<RecipeResponse> update(Long id, RecipeRequest recipeRequest, String email) {
+        return updateRecipe(id, recipeRequest, email, false);
+    }
 
-        return recipeRepository.findAllByUserIdEquals(user.getId()).stream()
-                .map(recipe -> mapToRecipeResponse(recipe, user))
-                .toList();
+    public Mono<RecipeResponse> patch(Long id, RecipeRequest recipeRequest, String email) {
+        return updateRecipe(id, recipeRequest, email, true);
     }
 
-    public RecipeResponse update(Long id, RecipeRequest recipeRequest, String email) {
-        UserResponse user = getUserByEmail(email);
+    private Mono<RecipeResponse> updateRecipe(Long id, RecipeRequest recipeRequest, String email, boolean partial) {
+        return Mono.zip(getUserByEmail(email), fromRepository(() -> findRecipe(id)))
+                .flatMap(tuple -> {
+                    UserResponse user = tuple.getT1();
+                    Recipe recipe = tuple.getT2();
+
+                    boolean replaceIngredients = !partial || recipeRequest.getIngredients() != null;
+                    Mono<Map<String, IngredientResponse>> newIngredients = replaceIngredients
+                            ? getIngredientsByIds(findNewIngredientIds(recipe, recipeRequest.getIngredients()))
+                            : Mono.just(Map.of());
+
+                    return newIngredients.flatMap(ingredients -> fromRepository(() -> {
+                        applyChange(recipeRequest.getName(), partial, recipe::setName);
+                        applyChange(recipeRequest.getDuration(), partial, recipe::setDuration);
+                        applyChange(recipeRequest.getAmountOfPeople(), partial, recipe::setAmountOfPeople);
+                        applyChange(recipeRequest.getDescription(), partial, recipe::setDescription);
+                        if (!partial || recipeRequest.getInstructions() != null) {
+                            recipe.setInstructions(toInstructions(recipeRequest));
+                        }
+
+                        if (replaceIngredients) {
+                            recipe.setIngredients(mergeRecipeIngredients(recipe.getIngredients(), recipeRequest.getIngredients(), ingredients));
+                        }
+
+                        recipeRepository.save(recipe);
+
+                        recipe.setUpdatedAt(LocalDateTime.now()); // The save doesn't return updated time for some reason
+                        return mapToRecipeResponse(recipe, user);
+                    }));
+                });
+    }
 
-        Recipe recipe = recipeRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recipe not found with id: " + id)
-        );
+    private <T> void applyChange(T value, boolean partial, Consumer<T> setter) {
+        // A partial update leaves fields that weren't sent untouched
+        if (!partial || value != null) {
+            setter.accept(value);
+        }
+    }
 
-        String instructions = concatInstruction(recipeRequest.getInstructions());
+    private Set<String> findNewIngredientIds(Recipe recipe, List<RecipeIngredientRequest> recipeIngredientRequests) {
+        Set<String> currentIngredientIds = recipe.getIngredients().stream()
+                .map(RecipeIngredient::getIngredientId)
+                .collect(Collectors.toSet());
 
-        recipe.setName(recipeRequest.getName());
-        recipe.setDuration(recipeRequest.getDuration());
-        recipe.setAmountOfPeople(recipeRequest.getAmountOfPeople());
-        recipe.setDescription(recipeRequest.getDescription());
-        recipe.setInstructions(instructions);
+        return recipeIngredientRequests.stream()
+                .map(RecipeIngredientRequest::getId)
+                .filter(ingredientId -> !currentIngredientIds.contains(ingredientId))
+                .collect(Collectors.toSet());
+    }
 
-        List<RecipeIngredient> recipeIngredients = recipeRequest.getIngredients().stream()
-                .map(this::mapToRecipeIngredient)
-                .toList();
+    private List<RecipeIngredient> mergeRecipeIngredients(List<RecipeIngredient> currentIngredients, List<RecipeIngredientRequest> recipeIngredientRequests, Map<String, IngredientResponse> newIngredients) {
+        // Rows are matched by ingredient id, so kept ingredients are updated in place and only added ones are inserted
+        Map<String, Deque<RecipeIngredient>> currentByIngredientId = currentIngredients.stream()
+                .collect(Collectors.groupingBy(RecipeIngredient::getIngredientId, Collectors.toCollection(ArrayDeque::new)));
+
+        List<RecipeIngredient> recipeIngredients = new ArrayList<>();
+        for (RecipeIngredientRequest recipeIngredientRequest : recipeIngredientRequests) {
+            Deque<RecipeIngredient> matches = currentByIngredientId.getOrDefault(recipeIngredientRequest.getId(), new ArrayDeque<>());
+            RecipeIngredient current = matches.poll();
+
+            if (current == null) {
+                IngredientResponse ingredient = newIngredients.containsKey(recipeIngredientRequest.getId())
+                        ? newIngredients.get(recipeIngredientRequest.getId())
+                        : findSnapshot(currentIngredients, recipeIngredientRequest.getId());
+                recipeIngredients.addAll(mapToRecipeIngredients(List.of(recipeIngredientRequest), Map.of(ingredient.getId(), ingredient)));
+                continue;
+            }
+
+            current.setQuantity(recipeIngredientRequest.getQuantity());
+            current.setUnit(recipeIngredientRequest.getUnit());
+            recipeIngredients.add(current);
+        }
 
-        recipe.setIngredients(new ArrayList<>(recipeIngredients));
-        recipeRepository.save(recipe);
+        return recipeIngredients;
+    }
 
-        recipe.setUpdatedAt(LocalDateTime.now()); // The save doesn't return updated time for some reason
-        return mapToRecipeResponse(recipe, user);
+    private IngredientResponse findSnapshot(List<RecipeIngredient> recipeIngredients, String ingredientId) {
+        // Used when an ingredient is listed more often than before, its snapshot is already known
+        RecipeIngredient recipeIngredient = recipeIngredients.stream()
+                .filter(current -> current.getIngredientId().equals(ingredientId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found with id: " + ingredientId));
+
+        return IngredientResponse.builder()
+                .id(ingredientId)
+                .name(recipeIngredient.getIngredientName())
+                .units(recipeIngredient.getIngredientUnits() == null ? null : List.of(recipeIngredient.getIngredientUnits()))
+                .build();
     }
 
-    public void delete(Long id) {
-        Recipe recipe = recipeRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Recipe not found with id: " + id)
-        );
+    public Mono<Void> refreshIngredientSnapshot(String ingredientId, IngredientResponse ingredient) {
+        ingredientCache.put(ingredient);
+
+        return fromRepository(() -> recipeIngredientRepository.updateSnapshot(ingredientId, ingredient.getName(), toUnits(ingredient)))
+                .then();
+    }
+
+    public Mono<Void> backfillIngredientSnapshots() {
+        return fromRepository(recipeIngredientRepository::findIngredientIdsWithoutSnapshot)
+                .flatMap(this::getIngredientsByIds)
+                .flatMapIterable(Map::values)
+                .concatMap(ingredient -> refreshIngredientSnapshot(ingredient.getId(), ingredient))
+                .then();
+    }
+
+    public Mono<Void> delete(Long id) {
+        return fromRepository(() -> {
+            Recipe recipe = findRecipe(id);
 
-        recipeRepository.delete(recipe);
+            recipeRepository.delete(recipe);
+            return recipe;
+        }).then();
     }
 }
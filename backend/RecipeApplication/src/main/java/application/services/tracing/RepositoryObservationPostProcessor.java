@@ -0,0 +1,38 @@
+package application.services.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps every Spring Data repository call in an observation, so each call shows up as a span within the trace
+ * of the request that made it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory -> repositoryFactory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(observe(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+
+        return bean;
+    }
+
+    private MethodInterceptor observe(String repository) {
+        return invocation -> Observation.createNotStarted("repository.call", observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .contextualName(repository + "." + invocation.getMethod().getName())
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                .observeChecked(invocation::proceed);
+    }
+}
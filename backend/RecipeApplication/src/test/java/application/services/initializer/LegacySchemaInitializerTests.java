@@ -0,0 +1,56 @@
+package application.services.initializer;
+
+import application.services.model.Recipe;
+import application.services.model.RecipeIngredient;
+import application.services.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.schema-locations=classpath:legacy-schema.sql"
+})
+@Import(LegacySchemaInitializer.class)
+public class LegacySchemaInitializerTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Test
+    public void startup_WithLegacyJoinTable_MovesLinksToRecipeIdColumn() {
+        // Act
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select id, recipe_id from recipe_ingredient order by id");
+        String nullable = jdbcTemplate.queryForObject(
+                "select is_nullable from information_schema.columns where lower(table_name) = 'recipe_ingredient' and lower(column_name) = 'recipe_id'",
+                String.class);
+
+        // Assert
+        assertFalse(LegacySchemaInitializer.tableExists(jdbcTemplate, "recipe_ingredients"));
+        assertEquals(3, rows.size());
+        assertEquals(1L, ((Number) rows.get(0).get("recipe_id")).longValue());
+        assertEquals(1L, ((Number) rows.get(1).get("recipe_id")).longValue());
+        assertEquals(2L, ((Number) rows.get(2).get("recipe_id")).longValue());
+        assertEquals("NO", nullable);
+    }
+
+    @Test
+    public void startup_WithLegacySchema_LoadsMigratedRecipes() {
+        // Act
+        Recipe recipe = recipeRepository.findById(1L).orElseThrow();
+
+        // Assert
+        assertEquals(List.of("ingredient1", "ingredient2"), recipe.getIngredients().stream().map(RecipeIngredient::getIngredientId).sorted().toList());
+        assertArrayEquals(new String[]{"boil", "drain"}, recipe.getInstructions());
+        assertFalse(LegacySchemaInitializer.columnExists(jdbcTemplate, "recipe", "instructions"));
+    }
+}
@@ -0,0 +1,147 @@
+package application.services.repository;
+
+import application.services.model.Recipe;
+import application.services.model.RecipeIngredient;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.auto=application.services.repository.RecipeRepositoryTests$JdbcBatchCounter"
+})
+public class RecipeRepositoryTests {
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void findAllByIdInOrderByIdAsc_WithPageOfRecipes_LoadsIngredientsInConstantQueries() {
+        // Arrange
+        IntStream.range(0, 10).forEach(i -> recipeRepository.save(recipe("user", 3)));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // Act
+        List<Long> pageIds = recipeRepository.findPageIds(0L, PageRequest.ofSize(10));
+        List<Recipe> recipes = recipeRepository.findAllByIdInOrderByIdAsc(pageIds);
+        int ingredientCount = recipes.stream().mapToInt(recipe -> recipe.getIngredients().size()).sum();
+
+        // Assert
+        assertEquals(10, recipes.size());
+        assertEquals(30, ingredientCount);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    public void save_WithRemovedIngredient_DeletesOrphan() {
+        // Arrange
+        Recipe recipe = recipeRepository.save(recipe("user", 3));
+        entityManager.flush();
+        entityManager.clear();
+
+        Recipe detached = recipeRepository.findById(recipe.getId()).orElseThrow();
+        entityManager.clear();
+        detached.setIngredients(new ArrayList<>(detached.getIngredients().subList(0, 1)));
+
+        // Act
+        recipeRepository.save(detached);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        Long rows = entityManager.createQuery("select count(ri) from RecipeIngredient ri", Long.class).getSingleResult();
+        assertEquals(1, rows);
+        assertEquals(1, recipeRepository.findById(recipe.getId()).orElseThrow().getIngredients().size());
+    }
+
+    @Test
+    public void save_WithInstructions_KeepsInstructionsInOrder() {
+        // Arrange
+        Recipe recipe = recipe("user", 1);
+        recipe.setInstructions(new String[]{"first___step", "second, step", ""});
+
+        // Act
+        recipeRepository.save(recipe);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        Recipe loaded = recipeRepository.findById(recipe.getId()).orElseThrow();
+        assertArrayEquals(new String[]{"first___step", "second, step", ""}, loaded.getInstructions());
+    }
+
+    @Test
+    public void save_WithGrowingIngredientCount_WritesInBatches() {
+        // Act & Assert
+        // One batch for the recipe row and one per batch_size (50) ingredient rows, the recipe_id goes into the insert
+        assertBatches(1, 2);
+        assertBatches(5, 2);
+        assertBatches(50, 2);
+        assertBatches(120, 4);
+    }
+
+    private void assertBatches(int ingredientCount, int expectedBatches) {
+        Recipe recipe = recipe("user", ingredientCount);
+        JdbcBatchCounter.BATCHES.set(0);
+
+        recipeRepository.save(recipe);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(expectedBatches, JdbcBatchCounter.BATCHES.get(), "batches for " + ingredientCount + " ingredients");
+    }
+
+    private static Recipe recipe(String userId, int ingredientCount) {
+        List<RecipeIngredient> ingredients = new ArrayList<>();
+        IntStream.range(0, ingredientCount).forEach(i -> ingredients.add(RecipeIngredient.builder()
+                .ingredientId("ingredient" + i)
+                .ingredientName("name" + i)
+                .ingredientUnits(new String[]{"g"})
+                .quantity(1.0)
+                .unit("g")
+                .build()));
+
+        return Recipe.builder()
+                .name("name")
+                .instructions(new String[]{"instruction"})
+                .userId(userId)
+                .ingredients(ingredients)
+                .build();
+    }
+
+    // Registered through hibernate.session.events.auto, counts the batches actually sent to the database
+    public static class JdbcBatchCounter implements SessionEventListener {
+        static final AtomicInteger BATCHES = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            BATCHES.incrementAndGet();
+        }
+    }
+}
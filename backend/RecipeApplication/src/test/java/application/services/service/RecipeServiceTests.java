@@ -1,25 +1,38 @@
 package application.services.service;
 
+import application.services.cache.IngredientCache;
 import application.services.dto.*;
+import application.services.exception.InvalidPageRequestException;
 import application.services.exception.ResourceNotFoundException;
 import application.services.model.Recipe;
 import application.services.model.RecipeIngredient;
+import application.services.repository.RecipeIngredientRepository;
 import application.services.repository.RecipeRepository;
+import application.services.resilience.DownstreamGuard;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,15 +43,32 @@ public class RecipeServiceTests {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private RecipeIngredientRepository recipeIngredientRepository;
+
     @Mock
     private WebClient webClient;
 
+    @Spy
+    private IngredientCache ingredientCache = new IngredientCache(100, Duration.ofMinutes(10));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private DownstreamGuard downstreamGuard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), meterRegistry, Duration.ofSeconds(2), Duration.ofSeconds(2), 100);
+
     @Mock
     private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
 
     @Mock
     private WebClient.RequestHeadersSpec requestHeadersSpec;
 
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
@@ -46,6 +76,9 @@ public class RecipeServiceTests {
     void setUp() {
         ReflectionTestUtils.setField(recipeService, "userServiceBaseUrl", "http://localhost:8081");
         ReflectionTestUtils.setField(recipeService, "ingredientServiceBaseUrl", "http://localhost:8082");
+        ReflectionTestUtils.setField(recipeService, "ingredientBatchSize", 100);
+        ReflectionTestUtils.setField(recipeService, "ingredientMaxConcurrency", 4);
+        ReflectionTestUtils.setField(recipeService, "streamBatchSize", 25);
     }
 
     @Test
@@ -68,14 +101,14 @@ public class RecipeServiceTests {
                 .build();
 
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any()))
                 .thenThrow(new ResourceNotFoundException("User not found with email: " + "email"));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
-            recipeService.create(recipeRequest, "email");
+            recipeService.create(recipeRequest, "email").block();
         });
     }
 
@@ -111,14 +144,17 @@ public class RecipeServiceTests {
                 .build();
 
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
-        when(responseSpec.bodyToMono(IngredientResponse.class)).thenReturn(Mono.just(ingredientResponse1));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(responseSpec.bodyToFlux(IngredientResponse.class)).thenReturn(Flux.just(ingredientResponse1));
 
         // Act
-        RecipeResponse recipeResponse = recipeService.create(recipeRequest, userResponse.getEmail());
+        RecipeResponse recipeResponse = recipeService.create(recipeRequest, userResponse.getEmail()).block();
 
         // Assert
         assertEquals("name", recipeResponse.getName());
@@ -139,11 +175,75 @@ public class RecipeServiceTests {
         verify(recipeRepository, times(1)).save(any(Recipe.class));
     }
 
+    @Test
+    public void create_WithMoreIngredientsThanBatchSize_FetchesIngredientsInBatches() {
+        // Arrange
+        ReflectionTestUtils.setField(recipeService, "ingredientBatchSize", 1);
+
+        RecipeIngredientRequest recipeIngredientRequest1 = RecipeIngredientRequest.builder()
+                .id("ingredient1Id")
+                .quantity(1.)
+                .unit("unit1")
+                .build();
+
+        RecipeIngredientRequest recipeIngredientRequest2 = RecipeIngredientRequest.builder()
+                .id("ingredient2Id")
+                .quantity(2.)
+                .unit("unit2")
+                .build();
+
+        IngredientResponse ingredientResponse1 = IngredientResponse.builder()
+                .id("ingredient1Id")
+                .name("ingredient1")
+                .units(List.of("unit1"))
+                .build();
+
+        IngredientResponse ingredientResponse2 = IngredientResponse.builder()
+                .id("ingredient2Id")
+                .name("ingredient2")
+                .units(List.of("unit2"))
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+
+        RecipeRequest recipeRequest = RecipeRequest.builder()
+                .name("name")
+                .instructions(List.of("instruction1"))
+                .ingredients(List.of(recipeIngredientRequest1, recipeIngredientRequest2))
+                .build();
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(responseSpec.bodyToFlux(IngredientResponse.class))
+                .thenReturn(Flux.just(ingredientResponse1), Flux.just(ingredientResponse2));
+
+        // Act
+        RecipeResponse recipeResponse = recipeService.create(recipeRequest, userResponse.getEmail()).block();
+
+        // Assert
+        assertEquals(2, recipeResponse.getIngredients().size());
+        assertEquals("ingredient1", recipeResponse.getIngredients().get(0).getName());
+        assertEquals("ingredient2", recipeResponse.getIngredients().get(1).getName());
+
+        verify(webClient, times(2)).post();
+        verify(recipeRepository, times(1)).save(any(Recipe.class));
+    }
+
     @Test
     public void getById_WithNonExistentId_ThrowsResourceNotFoundException() {
         when(recipeRepository.findById(1L)).thenReturn(java.util.Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> recipeService.getById(1L));
+        assertThrows(ResourceNotFoundException.class, () -> recipeService.getById(1L).block());
         verify(recipeRepository, times(1)).findById(1L);
     }
 
@@ -152,16 +252,11 @@ public class RecipeServiceTests {
         // Arrange
         RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
                 .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
                 .quantity(1.)
                 .unit("unit1")
                 .build();
 
-        IngredientResponse ingredientResponse1 = IngredientResponse.builder()
-                .id("ingredient1Id")
-                .name("ingredient1")
-                .units(List.of("unit1"))
-                .build();
-
         UserResponse userResponse = UserResponse.builder()
                 .id("userId")
                 .email("email")
@@ -175,22 +270,20 @@ public class RecipeServiceTests {
                 .duration(Duration.parse("PT1H"))
                 .amountOfPeople(1)
                 .description("description")
-                .instructions("instruction1___instruction2")
+                .instructions(new String[]{"instruction1", "instruction2"})
                 .ingredients(List.of(recipeIngredient1))
                 .userId("userId")
                 .build();
 
         when(recipeRepository.findById(recipe.getId())).thenReturn(java.util.Optional.of(recipe));
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
-        when(responseSpec.bodyToMono(IngredientResponse.class))
-                .thenReturn(Mono.just(ingredientResponse1));
 
         // Act
-        RecipeResponse recipeResponse = recipeService.getById(recipe.getId());
+        RecipeResponse recipeResponse = recipeService.getById(recipe.getId()).block();
 
         // Assert
         assertEquals(1L, recipeResponse.getId());
@@ -210,18 +303,301 @@ public class RecipeServiceTests {
         assertEquals("image", recipeResponse.getUser().getImage());
 
         verify(recipeRepository, times(1)).findById(recipe.getId());
+        verify(webClient, never()).post();
+    }
+
+    @Test
+    public void getAll_WithSharedUsers_ResolvesUsersInOneCallWithoutIngredientService() {
+        // Arrange
+        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
+                .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
+                .quantity(1.)
+                .unit("unit1")
+                .build();
+
+        RecipeIngredient recipeIngredient2 = RecipeIngredient.builder()
+                .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
+                .quantity(2.)
+                .unit("unit1")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .id("userId")
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+
+        Recipe recipe1 = Recipe.builder()
+                .id(1L)
+                .name("name1")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of(recipeIngredient1))
+                .userId("userId")
+                .build();
+
+        Recipe recipe2 = Recipe.builder()
+                .id(2L)
+                .name("name2")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of(recipeIngredient2))
+                .userId("userId")
+                .build();
+
+        when(recipeRepository.findPageIds(eq(0L), any())).thenReturn(List.of(1L, 2L));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(1L, 2L))).thenReturn(List.of(recipe1, recipe2));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+                .thenReturn(Mono.just(Map.of("userId", userResponse)));
+
+        // Act
+        RecipePageResponse recipePageResponse = recipeService.getAll(0L, 20).block();
+        List<RecipeResponse> recipeResponses = recipePageResponse.getRecipes();
+
+        // Assert
+        assertEquals(2, recipeResponses.size());
+        assertNull(recipePageResponse.getNextCursor());
+        assertEquals("ingredient1", recipeResponses.get(0).getIngredients().get(0).getName());
+        assertEquals(1., recipeResponses.get(0).getIngredients().get(0).getQuantity());
+        assertEquals("ingredient1", recipeResponses.get(1).getIngredients().get(0).getName());
+        assertEquals(2., recipeResponses.get(1).getIngredients().get(0).getQuantity());
+
+        assertEquals("name", recipeResponses.get(0).getUser().getName());
+        assertEquals("name", recipeResponses.get(1).getUser().getName());
+
+        verify(webClient, times(1)).post();
+        verify(webClient, never()).get();
+        verify(requestBodySpec, times(1)).bodyValue(Set.of("userId"));
+        verify(responseSpec, never()).bodyToFlux(IngredientResponse.class);
+    }
+
+    @Test
+    public void getAll_WithMoreRecipesThanLimit_ReturnsNextCursor() {
+        // Arrange
+        Recipe recipe1 = Recipe.builder()
+                .id(1L)
+                .name("name1")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .id("userId")
+                .name("name")
+                .image("image")
+                .build();
+
+        when(recipeRepository.findPageIds(5L, PageRequest.ofSize(2))).thenReturn(List.of(6L, 7L));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(6L))).thenReturn(List.of(recipe1));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+                .thenReturn(Mono.just(Map.of("userId", userResponse)));
+
+        // Act
+        RecipePageResponse recipePageResponse = recipeService.getAll(5L, 1).block();
+
+        // Assert
+        assertEquals(1, recipePageResponse.getRecipes().size());
+        assertEquals(6L, recipePageResponse.getNextCursor());
+        assertEquals("name1", recipePageResponse.getRecipes().get(0).getName());
+
+        verify(recipeRepository, times(1)).findPageIds(5L, PageRequest.ofSize(2));
+        verify(recipeRepository, times(1)).findAllByIdInOrderByIdAsc(List.of(6L));
+    }
+
+    @Test
+    public void search_WithRankedMatches_ReturnsRecipesInRankOrder() {
+        // Arrange
+        Recipe recipe1 = Recipe.builder()
+                .id(1L)
+                .name("name1")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        Recipe recipe2 = Recipe.builder()
+                .id(2L)
+                .name("name2")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .id("userId")
+                .name("name")
+                .image("image")
+                .build();
+
+        when(recipeRepository.searchIds("pasta", 0L, 3)).thenReturn(List.of(2L, 1L, 3L));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(2L, 1L))).thenReturn(List.of(recipe1, recipe2));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+                .thenReturn(Mono.just(Map.of("userId", userResponse)));
+
+        // Act
+        RecipePageResponse recipePageResponse = recipeService.search("pasta", 0L, 2).block();
+
+        // Assert
+        assertEquals(2, recipePageResponse.getRecipes().size());
+        assertEquals("name2", recipePageResponse.getRecipes().get(0).getName());
+        assertEquals("name1", recipePageResponse.getRecipes().get(1).getName());
+        assertEquals(2L, recipePageResponse.getNextCursor());
+
+        verify(recipeRepository, times(1)).searchIds("pasta", 0L, 3);
+    }
+
+    @Test
+    public void search_WithBlankQuery_ReturnsEmptyPage() {
+        // Act
+        RecipePageResponse recipePageResponse = recipeService.search(" ", 0L, 20).block();
+
+        // Assert
+        assertTrue(recipePageResponse.getRecipes().isEmpty());
+        assertNull(recipePageResponse.getNextCursor());
+
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void search_WithNegativeOffset_ThrowsInvalidPageRequestException() {
+        // Act & Assert
+        assertThrows(InvalidPageRequestException.class, () -> recipeService.search("pasta", -1L, 20).block());
+
+        verifyNoInteractions(recipeRepository);
+    }
+
+    @Test
+    public void search_WithNonPositiveLimit_ReturnsSingleRecipePage() {
+        // Arrange
+        when(recipeRepository.searchIds("pasta", 0L, 2)).thenReturn(List.of());
+
+        // Act
+        RecipePageResponse recipePageResponse = recipeService.search("pasta", 0L, -5).block();
+
+        // Assert
+        assertTrue(recipePageResponse.getRecipes().isEmpty());
+
+        verify(recipeRepository, times(1)).searchIds("pasta", 0L, 2);
+    }
+
+    @Test
+    public void streamAll_WithMultipleBatches_EmitsRecipesBatchByBatch() {
+        // Arrange
+        ReflectionTestUtils.setField(recipeService, "streamBatchSize", 1);
+
+        Recipe recipe1 = Recipe.builder()
+                .id(1L)
+                .name("name1")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        Recipe recipe2 = Recipe.builder()
+                .id(2L)
+                .name("name2")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .id("userId")
+                .name("name")
+                .image("image")
+                .build();
+
+        when(recipeRepository.findPageIds(0L, PageRequest.ofSize(2))).thenReturn(List.of(1L, 2L));
+        when(recipeRepository.findPageIds(1L, PageRequest.ofSize(2))).thenReturn(List.of(2L));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(recipe1));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(2L))).thenReturn(List.of(recipe2));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+                .thenReturn(Mono.just(Map.of("userId", userResponse)));
+
+        // Act
+        List<RecipeResponse> recipeResponses = recipeService.streamAll().collectList().block();
+
+        // Assert
+        assertEquals(2, recipeResponses.size());
+        assertEquals("name1", recipeResponses.get(0).getName());
+        assertEquals("name2", recipeResponses.get(1).getName());
+
+        verify(recipeRepository, times(2)).findPageIds(any(), any());
+        verify(webClient, times(2)).post();
+    }
+
+    @Test
+    public void refreshIngredientSnapshot_WithChangedIngredient_UpdatesSnapshotsAndCache() {
+        // Arrange
+        IngredientResponse ingredientResponse1 = IngredientResponse.builder()
+                .id("ingredient1Id")
+                .name("new name")
+                .units(List.of("unit1", "unit2"))
+                .build();
+
+        // Act
+        recipeService.refreshIngredientSnapshot("ingredient1Id", ingredientResponse1).block();
+
+        // Assert
+        assertEquals(ingredientResponse1, ingredientCache.getAllPresent(List.of("ingredient1Id")).get("ingredient1Id"));
+
+        verify(recipeIngredientRepository, times(1))
+                .updateSnapshot("ingredient1Id", "new name", new String[]{"unit1", "unit2"});
+    }
+
+    @Test
+    public void backfillIngredientSnapshots_WithMissingSnapshots_FetchesAndStoresThem() {
+        // Arrange
+        IngredientResponse ingredientResponse1 = IngredientResponse.builder()
+                .id("ingredient1Id")
+                .name("ingredient1")
+                .units(List.of("unit1"))
+                .build();
+
+        when(recipeIngredientRepository.findIngredientIdsWithoutSnapshot()).thenReturn(List.of("ingredient1Id"));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(IngredientResponse.class)).thenReturn(Flux.just(ingredientResponse1));
+
+        // Act
+        recipeService.backfillIngredientSnapshots().block();
+
+        // Assert
+        verify(requestBodySpec, times(1)).bodyValue(List.of("ingredient1Id"));
+        verify(recipeIngredientRepository, times(1))
+                .updateSnapshot("ingredient1Id", "ingredient1", new String[]{"unit1"});
     }
 
     @Test
     public void getAllForUserSelf_WithNonExistentUser_ThrowsResourceNotFoundException() {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenThrow(new ResourceNotFoundException("User not found with email: email"));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
-            recipeService.getAllForUserSelf("email");
+            recipeService.getAllForUserSelf("email", 0L, 20).block();
         });
     }
 
@@ -230,16 +606,11 @@ public class RecipeServiceTests {
         // Arrange
         RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
                 .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
                 .quantity(1.)
                 .unit("unit1")
                 .build();
 
-        IngredientResponse ingredientResponse1 = IngredientResponse.builder()
-                .id("ingredient1Id")
-                .name("ingredient1")
-                .units(List.of("unit1"))
-                .build();
-
         UserResponse userResponse = UserResponse.builder()
                 .id("userId")
                 .email("email")
@@ -253,22 +624,21 @@ public class RecipeServiceTests {
                 .duration(Duration.parse("PT1H"))
                 .amountOfPeople(1)
                 .description("description1")
-                .instructions("instruction1___instruction2")
+                .instructions(new String[]{"instruction1", "instruction2"})
                 .ingredients(List.of(recipeIngredient1))
                 .userId("userId")
                 .build();
 
-        when(recipeRepository.findAllByUserIdEquals(userResponse.getId())).thenReturn(List.of(recipe1));
+        when(recipeRepository.findPageIdsByUserId(eq(userResponse.getId()), eq(0L), any())).thenReturn(List.of(1L));
+        when(recipeRepository.findAllByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(recipe1));
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
-        when(responseSpec.bodyToMono(IngredientResponse.class))
-                .thenReturn(Mono.just(ingredientResponse1));
 
         // Act
-        List<RecipeResponse> recipeResponses = recipeService.getAllForUserSelf(userResponse.getEmail());
+        List<RecipeResponse> recipeResponses = recipeService.getAllForUserSelf(userResponse.getEmail(), 0L, 20).block().getRecipes();
 
         // Assert
         assertEquals(1, recipeResponses.size());
@@ -287,7 +657,66 @@ public class RecipeServiceTests {
         assertEquals("name", recipeResponses.get(0).getUser().getName());
         assertEquals("image", recipeResponses.get(0).getUser().getImage());
 
-        verify(recipeRepository, times(1)).findAllByUserIdEquals(userResponse.getId());
+        verify(recipeRepository, times(1)).findPageIdsByUserId(userResponse.getId(), 0L, PageRequest.ofSize(21));
+    }
+
+    @Test
+    public void getById_WithUserServiceUnavailable_ServesLastKnownUser() {
+        // Arrange
+        UserResponse userResponse = UserResponse.builder()
+                .id("userId")
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+
+        Recipe recipe = Recipe.builder()
+                .id(1L)
+                .name("name")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        when(recipeRepository.findById(1L)).thenReturn(java.util.Optional.of(recipe));
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(UserResponse.class))
+                .thenReturn(Mono.just(userResponse))
+                .thenReturn(Mono.error(new IllegalStateException("Connection refused")));
+
+        // Act
+        recipeService.getById(1L).block();
+        RecipeResponse recipeResponse = recipeService.getById(1L).block();
+
+        // Assert
+        assertEquals("name", recipeResponse.getUser().getName());
+        assertEquals(1, meterRegistry.counter("downstream.fallback", "service", DownstreamGuard.USER_SERVICE, "result", "hit").count());
+    }
+
+    @Test
+    public void getById_WithUserServiceUnavailableAndUnknownUser_ThrowsError() {
+        // Arrange
+        Recipe recipe = Recipe.builder()
+                .id(1L)
+                .name("name")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of())
+                .userId("userId")
+                .build();
+
+        when(recipeRepository.findById(1L)).thenReturn(java.util.Optional.of(recipe));
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.error(new IllegalStateException("Connection refused")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> recipeService.getById(1L).block());
+        assertEquals(1, meterRegistry.counter("downstream.fallback", "service", DownstreamGuard.USER_SERVICE, "result", "miss").count());
     }
 
     @Test
@@ -310,14 +739,14 @@ public class RecipeServiceTests {
                 .build();
 
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any()))
                 .thenThrow(new ResourceNotFoundException("User not found with email: email"));
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
-            recipeService.update(1L, recipeRequest, "email");
+            recipeService.update(1L, recipeRequest, "email").block();
         });
     }
 
@@ -363,21 +792,24 @@ public class RecipeServiceTests {
                 .name("name")
                 .duration(duration)
                 .description("description")
-                .instructions("instruction1___instruction2")
+                .instructions(new String[]{"instruction1", "instruction2"})
                 .ingredients(List.of(recipeIngredient1))
                 .userId("userId")
                 .build();
 
         when(recipeRepository.findById(recipe.getId())).thenReturn(java.util.Optional.of(recipe));
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
         when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
-        when(responseSpec.bodyToMono(IngredientResponse.class)).thenReturn(Mono.just(ingredientResponse1));
+        when(webClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(responseSpec.bodyToFlux(IngredientResponse.class)).thenReturn(Flux.just(ingredientResponse1));
 
         // Act
-        RecipeResponse recipeResponse = recipeService.update(recipe.getId(), recipeRequest, userResponse.getEmail());
+        RecipeResponse recipeResponse = recipeService.update(recipe.getId(), recipeRequest, userResponse.getEmail()).block();
 
         // Assert
         assertEquals(1L, recipeResponse.getId());
@@ -400,6 +832,129 @@ public class RecipeServiceTests {
         verify(recipeRepository, times(1)).save(any(Recipe.class));
     }
 
+    @Test
+    public void update_WithKnownIngredients_UpdatesRowsInPlaceWithoutIngredientService() {
+        // Arrange
+        RecipeIngredientRequest recipeIngredientRequest1 = RecipeIngredientRequest.builder()
+                .id("ingredient1Id")
+                .quantity(3.)
+                .unit("unit1")
+                .build();
+
+        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
+                .id(10L)
+                .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
+                .quantity(1.)
+                .unit("unit1")
+                .build();
+
+        RecipeIngredient recipeIngredient2 = RecipeIngredient.builder()
+                .id(11L)
+                .ingredientId("ingredient2Id")
+                .ingredientName("ingredient2")
+                .quantity(2.)
+                .unit("unit2")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+
+        RecipeRequest recipeRequest = RecipeRequest.builder()
+                .name("name")
+                .instructions(List.of("instruction1"))
+                .ingredients(List.of(recipeIngredientRequest1))
+                .build();
+
+        Recipe recipe = Recipe.builder()
+                .id(1L)
+                .name("name")
+                .instructions(new String[]{"instruction1"})
+                .ingredients(List.of(recipeIngredient1, recipeIngredient2))
+                .userId("userId")
+                .build();
+
+        when(recipeRepository.findById(recipe.getId())).thenReturn(java.util.Optional.of(recipe));
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
+
+        // Act
+        RecipeResponse recipeResponse = recipeService.update(recipe.getId(), recipeRequest, userResponse.getEmail()).block();
+
+        // Assert
+        assertEquals(1, recipe.getIngredients().size());
+        assertSame(recipeIngredient1, recipe.getIngredients().get(0));
+        assertEquals(3., recipeIngredient1.getQuantity());
+        assertEquals(1, recipeResponse.getIngredients().size());
+        assertEquals("ingredient1", recipeResponse.getIngredients().get(0).getName());
+        assertEquals(3., recipeResponse.getIngredients().get(0).getQuantity());
+
+        verify(webClient, never()).post();
+        verify(recipeRepository, times(1)).save(recipe);
+    }
+
+    @Test
+    public void patch_WithPartialRequest_OnlyChangesSentFields() {
+        // Arrange
+        RecipeIngredient recipeIngredient1 = RecipeIngredient.builder()
+                .id(10L)
+                .ingredientId("ingredient1Id")
+                .ingredientName("ingredient1")
+                .quantity(1.)
+                .unit("unit1")
+                .build();
+
+        UserResponse userResponse = UserResponse.builder()
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+
+        RecipeRequest recipeRequest = RecipeRequest.builder()
+                .description("new description")
+                .build();
+
+        Duration duration = Duration.parse("PT1H");
+        Recipe recipe = Recipe.builder()
+                .id(1L)
+                .name("name")
+                .duration(duration)
+                .amountOfPeople(2)
+                .description("description")
+                .instructions(new String[]{"instruction1", "instruction2"})
+                .ingredients(List.of(recipeIngredient1))
+                .userId("userId")
+                .build();
+
+        when(recipeRepository.findById(recipe.getId())).thenReturn(java.util.Optional.of(recipe));
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.onStatus(any(), any())).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(UserResponse.class)).thenReturn(Mono.just(userResponse));
+
+        // Act
+        RecipeResponse recipeResponse = recipeService.patch(recipe.getId(), recipeRequest, userResponse.getEmail()).block();
+
+        // Assert
+        assertEquals("name", recipeResponse.getName());
+        assertEquals(duration, recipeResponse.getDuration());
+        assertEquals(2, recipeResponse.getAmountOfPeople());
+        assertEquals("new description", recipeResponse.getDescription());
+        assertEquals(List.of("instruction1", "instruction2"), recipeResponse.getInstructions());
+        assertEquals(1, recipeResponse.getIngredients().size());
+        assertEquals(1., recipeResponse.getIngredients().get(0).getQuantity());
+
+        verify(webClient, never()).post();
+        verify(recipeRepository, times(1)).save(recipe);
+    }
+
     @Test
     public void delete_WithNonExistentId_ThrowsResourceNotFoundException() {
         // Arrange
@@ -407,7 +962,7 @@ public class RecipeServiceTests {
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
-            recipeService.delete(1L);
+            recipeService.delete(1L).block();
         });
 
         verify(recipeRepository, times(1)).findById(1L);
@@ -428,7 +983,7 @@ public class RecipeServiceTests {
                 .duration(Duration.parse("PT1H"))
                 .amountOfPeople(1)
                 .description("description")
-                .instructions("instruction1___instruction2")
+                .instructions(new String[]{"instruction1", "instruction2"})
                 .ingredients(List.of(recipeIngredient1))
                 .userId("userId")
                 .build();
@@ -436,7 +991,7 @@ public class RecipeServiceTests {
         when(recipeRepository.findById(recipe.getId())).thenReturn(java.util.Optional.of(recipe));
 
         // Act
-        recipeService.delete(recipe.getId());
+        recipeService.delete(recipe.getId()).block();
 
         // Assert
         verify(recipeRepository, times(1)).findById(recipe.getId());
@@ -0,0 +1,37 @@
+-- Recipe tables as they were before recipe_ingredient got its recipe_id column
+create table recipe (
+    id bigint not null primary key,
+    amount_of_people integer,
+    created_at timestamp(6),
+    description varchar(255),
+    duration numeric(21, 0),
+    instructions varchar(255),
+    name varchar(255),
+    updated_at timestamp(6),
+    user_id varchar(255)
+);
+
+create table recipe_ingredient (
+    id bigint not null primary key,
+    ingredient_id varchar(255),
+    quantity float(53),
+    unit varchar(255)
+);
+
+create table recipe_ingredients (
+    recipe_id bigint not null references recipe,
+    ingredients_id bigint not null unique references recipe_ingredient
+);
+
+insert into recipe (id, name, instructions, user_id) values (1, 'pasta', 'boil___drain', 'user1');
+insert into recipe (id, name, instructions, user_id) values (2, 'salad', 'mix', 'user2');
+
+insert into recipe_ingredient (id, ingredient_id, quantity, unit) values (1, 'ingredient1', 100, 'g');
+insert into recipe_ingredient (id, ingredient_id, quantity, unit) values (2, 'ingredient2', 1, 'l');
+insert into recipe_ingredient (id, ingredient_id, quantity, unit) values (3, 'ingredient3', 2, 'pcs');
+-- Not linked to any recipe
+insert into recipe_ingredient (id, ingredient_id, quantity, unit) values (4, 'ingredient4', 1, 'g');
+
+insert into recipe_ingredients (recipe_id, ingredients_id) values (1, 1);
+insert into recipe_ingredients (recipe_id, ingredients_id) values (1, 2);
+insert into recipe_ingredients (recipe_id, ingredients_id) values (2, 3);
@@ -0,0 +1,26 @@
+package application.services.userservice.initializer;
+
+import application.services.userservice.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+@Slf4j
+@Configuration
+public class DatabaseInitializer {
+    @Bean
+    CommandLineRunner initDatabase(MongoTemplate mongoTemplate) {
+        return args -> {
+            // Users are looked up and upserted by email, the unique index also stops duplicate registrations
+            try {
+                mongoTemplate.indexOps(User.class).ensureIndex(new Index("email", Sort.Direction.ASC).unique().named("email_unique"));
+            } catch (RuntimeException e) {
+                log.error("Could not create the unique email index, check for users sharing an email: {}", e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package application.services.userservice.repository;
+
+import application.services.userservice.model.User;
+
+public interface UserRepositoryCustom {
+    User upsertByEmail(User user);
+}
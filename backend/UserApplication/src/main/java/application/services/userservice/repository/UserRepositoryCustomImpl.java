@@ -0,0 +1,26 @@
+package application.services.userservice.repository;
+
+import application.services.userservice.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public User upsertByEmail(User user) {
+        // One atomic findAndModify: an existing user is returned as is, otherwise the user is inserted
+        Query query = Query.query(Criteria.where("email").is(user.getEmail()));
+        Update update = new Update()
+                .setOnInsert("googleId", user.getGoogleId())
+                .setOnInsert("name", user.getName())
+                .setOnInsert("image", user.getImage());
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true), User.class);
+    }
+}
@@ -9,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,20 +19,13 @@ public class UserService {
     private final UserRepository userRepository;
 
     public UserResponse create(UserRequest userRequest) {
-        Optional<User> existingUser = userRepository.findByEmail(userRequest.getEmail());
-        if (existingUser.isPresent()) {
-            return mapToUserResponse(existingUser.get());
-        }
-
         User user = User.builder()
                 .email(userRequest.getEmail())
                 .name(userRequest.getName())
                 .image(userRequest.getImage())
                 .build();
 
-        userRepository.save(user);
-
-        return mapToUserResponse(user);
+        return mapToUserResponse(userRepository.upsertByEmail(user));
     }
 
     public UserResponse getById(String id) {
@@ -49,6 +44,14 @@ public class UserService {
         return mapToUserResponse(user);
     }
 
+    public Map<String, UserResponse> getByIds(List<String> ids) {
+        List<User> users = userRepository.findAllById(ids);
+
+        return users.stream()
+                .map(this::mapToUserResponse)
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+    }
+
     public List<UserResponse> getAll() {
         List<User> users = userRepository.findAll();
 
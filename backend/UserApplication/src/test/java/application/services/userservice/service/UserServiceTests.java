@@ -12,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +35,8 @@ public class UserServiceTests {
                 .image("image")
                 .build();
 
+        when(userRepository.upsertByEmail(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
         // Act
         UserResponse user = userService.create(userRequest);
 
@@ -42,7 +45,37 @@ public class UserServiceTests {
         assertEquals("name", user.getName());
         assertEquals("image", user.getImage());
 
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).upsertByEmail(any(User.class));
+        verify(userRepository, never()).findByEmail(any());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    public void create_WithExistingEmail_ReturnsExistingUser() {
+        // Arrange
+        UserRequest userRequest = UserRequest.builder()
+                .email("email")
+                .name("new name")
+                .image("new image")
+                .build();
+
+        User existingUser = User.builder()
+                .id("id")
+                .email("email")
+                .name("name")
+                .image("image")
+                .build();
+        when(userRepository.upsertByEmail(any(User.class))).thenReturn(existingUser);
+
+        // Act
+        UserResponse user = userService.create(userRequest);
+
+        // Assert
+        assertEquals("id", user.getId());
+        assertEquals("name", user.getName());
+        assertEquals("image", user.getImage());
+
+        verify(userRepository, times(1)).upsertByEmail(any(User.class));
     }
 
     @Test
@@ -108,6 +141,38 @@ public class UserServiceTests {
         verify(userRepository, times(1)).findById("id");
     }
 
+    @Test
+    public void getByIds_WithValidRequest_ReturnsUsersById() {
+        // Arrange
+        User user1 = User.builder()
+                .id("id1")
+                .email("email1")
+                .name("name1")
+                .image("image1")
+                .build();
+
+        User user2 = User.builder()
+                .id("id2")
+                .email("email2")
+                .name("name2")
+                .image("image2")
+                .build();
+        List<String> ids = List.of("id1", "id2", "id3");
+        when(userRepository.findAllById(ids)).thenReturn(List.of(user1, user2));
+
+        // Act
+        Map<String, UserResponse> users = userService.getByIds(ids);
+
+        // Assert
+        assertEquals(2, users.size());
+        assertEquals("name1", users.get("id1").getName());
+        assertEquals("name2", users.get("id2").getName());
+        assertNull(users.get("id3"));
+
+        verify(userRepository, times(1)).findAllById(ids);
+        verify(userRepository, never()).findById(any());
+    }
+
     @Test
     public void delete_WithNonExistentId_ThrowsResourceNotFoundException() {
         // Arrange
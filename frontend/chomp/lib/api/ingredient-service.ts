@@ -8,3 +8,19 @@ export async function getIngredients(bearer_token: string) {
 
   return data;
 }
+
+export async function suggestIngredients(
+  bearer_token: string,
+  prefix: string,
+  limit = 10
+) {
+  const { data } = await axios.get<DbIngredient[]>(
+    `${process.env.NEXT_PUBLIC_API_BASE_URL}/ingredient/suggest`,
+    {
+      headers: { Authorization: `Bearer ${bearer_token}` },
+      params: { prefix, limit },
+    }
+  );
+
+  return data;
+}
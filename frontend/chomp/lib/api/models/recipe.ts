@@ -13,6 +13,11 @@ export interface DbRecipe {
   updatedAt?: DateTime;
 }
 
+export interface DbRecipePage {
+  recipes: DbRecipe[];
+  nextCursor?: number;
+}
+
 export interface DbRecipeUser {
   name: string;
   image: string;
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { DbRecipe } from './models/recipe';
+import { DbRecipe, DbRecipePage } from './models/recipe';
 import { DateTime } from 'luxon';
 import { mapToCorrectFormat } from '@/lib/helpers/recipe-duration-helper';
 
@@ -33,12 +33,23 @@ export async function getRecipeById(bearer_token: string, id: number) {
 }
 
 export async function getRecipeForUserSelf(bearer_token: string) {
-  const { data } = await axios.get<DbRecipe[]>(
-    `${process.env.NEXT_PUBLIC_API_BASE_URL}/recipe/me`,
-    { headers: { Authorization: `Bearer ${bearer_token}` } }
-  );
+  const recipes: DbRecipe[] = [];
+  let after: number | undefined;
+
+  do {
+    const { data } = await axios.get<DbRecipePage>(
+      `${process.env.NEXT_PUBLIC_API_BASE_URL}/recipe/me`,
+      {
+        headers: { Authorization: `Bearer ${bearer_token}` },
+        params: { after, limit: 100 },
+      }
+    );
+
+    recipes.push(...data.recipes);
+    after = data.nextCursor ?? undefined;
+  } while (after !== undefined);
 
-  return data.map((recipe) => mapResponseToValidRecipe(recipe));
+  return recipes.map((recipe) => mapResponseToValidRecipe(recipe));
 }
 
 export async function updateRecipe(bearer_token: string, recipe: DbRecipe) {